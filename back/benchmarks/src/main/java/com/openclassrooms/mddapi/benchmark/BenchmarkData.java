@@ -0,0 +1,146 @@
+package com.openclassrooms.mddapi.benchmark;
+
+import com.openclassrooms.mddapi.dto.CommentDto;
+import com.openclassrooms.mddapi.dto.PostDto;
+import com.openclassrooms.mddapi.model.Comment;
+import com.openclassrooms.mddapi.model.Post;
+import com.openclassrooms.mddapi.model.Topic;
+import com.openclassrooms.mddapi.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Jeux de données des benchmarks.
+ *
+ * <p>
+ * Les données sont générées de façon déterministe (graine fixe) et avec des tailles
+ * proches de la production : titres courts, contenus de plusieurs centaines de
+ * caractères, auteurs et topics partagés entre les posts.
+ * </p>
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42L;
+    private static final int AUTHORS = 500;
+    private static final int TOPICS = 50;
+    private static final int POST_CONTENT_LENGTH = 800;
+    private static final int COMMENT_CONTENT_LENGTH = 200;
+
+    private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor "
+            + "incididunt ut labore et dolore magna aliqua ut enim ad minim veniam quis nostrud exercitation ";
+
+    private BenchmarkData() {
+    }
+
+    static List<User> users() {
+        List<User> users = new ArrayList<>(AUTHORS);
+        for (int i = 1; i <= AUTHORS; i++) {
+            users.add(User.builder()
+                    .id(i)
+                    .name("user" + i)
+                    .email("user" + i + "@mdd.test")
+                    .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+                    .build());
+        }
+        return users;
+    }
+
+    static List<Topic> topics(int count) {
+        List<Topic> topics = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Topic topic = new Topic();
+            topic.setId(i);
+            topic.setTitle("Topic " + i);
+            topic.setDescription(text(new SplittableRandom(SEED + i), 300));
+            topics.add(topic);
+        }
+        return topics;
+    }
+
+    /**
+     * Identifiants d’un abonnement couvrant environ un topic sur cinq.
+     */
+    static Set<Integer> subscribedTopicIds(int topicCount) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 1; i <= topicCount; i++) {
+            if (random.nextInt(5) == 0) {
+                ids.add(i);
+            }
+        }
+        return ids;
+    }
+
+    static List<Post> posts(int postCount, int commentsPerPost) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<User> users = users();
+        List<Topic> topics = topics(TOPICS);
+        String postContent = text(random, POST_CONTENT_LENGTH);
+        String commentContent = text(random, COMMENT_CONTENT_LENGTH);
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<Post> posts = new ArrayList<>(postCount);
+        int commentId = 1;
+        for (int i = 1; i <= postCount; i++) {
+            LocalDateTime createdAt = origin.plusMinutes(i);
+            Post post = Post.builder()
+                    .id(i)
+                    .date(createdAt)
+                    .createdAt(createdAt)
+                    .title("Post " + i)
+                    .content(postContent)
+                    .author(users.get(random.nextInt(users.size())))
+                    .topic(topics.get(random.nextInt(topics.size())))
+                    .build();
+
+            List<Comment> comments = new ArrayList<>(commentsPerPost);
+            for (int c = 0; c < commentsPerPost; c++) {
+                LocalDateTime commentedAt = createdAt.plusSeconds(c + 1L);
+                comments.add(Comment.builder()
+                        .id(commentId++)
+                        .date(commentedAt)
+                        .createdAt(commentedAt)
+                        .content(commentContent)
+                        .author(users.get(random.nextInt(users.size())))
+                        .post(post)
+                        .build());
+            }
+            post.setComments(comments);
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    /**
+     * Posts sous forme de DTO, tels que renvoyés par les projections du fil.
+     */
+    static List<PostDto> postDtos(int postCount, int commentsPerPost) {
+        List<PostDto> postDtos = new ArrayList<>(postCount);
+        for (Post post : posts(postCount, commentsPerPost)) {
+            PostDto postDto = new PostDto(post.getId(), post.getDate(), post.getTitle(), post.getContent(),
+                    post.getAuthor().getName(), post.getTopic().getTitle(), post.getCreatedAt(), (long) commentsPerPost);
+            List<CommentDto> commentDtos = new ArrayList<>(commentsPerPost);
+            for (Comment comment : post.getComments()) {
+                commentDtos.add(new CommentDto(comment.getId(), comment.getDate(), comment.getContent(),
+                        comment.getAuthor().getName(), post.getId(), comment.getCreatedAt()));
+            }
+            postDto.setComments(commentDtos);
+            postDtos.add(postDto);
+        }
+        return postDtos;
+    }
+
+    private static String text(SplittableRandom random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            int start = random.nextInt(WORDS.length() - 10);
+            builder.append(WORDS, start, Math.min(WORDS.length(), start + 10 + random.nextInt(20)));
+        }
+        return builder.substring(0, length);
+    }
+}
@@ -0,0 +1,109 @@
+package com.openclassrooms.mddapi.benchmark;
+
+import com.openclassrooms.mddapi.dto.PostDto;
+import com.openclassrooms.mddapi.dto.TopicDto;
+import com.openclassrooms.mddapi.mapper.CommentMapperImpl;
+import com.openclassrooms.mddapi.mapper.PostMapper;
+import com.openclassrooms.mddapi.mapper.PostMapperImpl;
+import com.openclassrooms.mddapi.mapper.TopicMapper;
+import com.openclassrooms.mddapi.mapper.TopicMapperImpl;
+import com.openclassrooms.mddapi.model.Post;
+import com.openclassrooms.mddapi.model.Topic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le mapping entités → DTO réalisé par MapStruct.
+ *
+ * <p>
+ * Les mappers générés sont instanciés dans un contexte Spring minimal afin que
+ * {@code PostMapper} reçoive son {@code CommentMapper} comme en production.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class MapperBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Mappers {
+
+        AnnotationConfigApplicationContext context;
+        PostMapper postMapper;
+        TopicMapper topicMapper;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new AnnotationConfigApplicationContext(PostMapperImpl.class, CommentMapperImpl.class, TopicMapperImpl.class);
+            postMapper = context.getBean(PostMapper.class);
+            topicMapper = context.getBean(TopicMapper.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Posts {
+
+        @Param({"1000", "10000", "100000"})
+        int postCount;
+
+        @Param({"0", "20", "200"})
+        int commentsPerPost;
+
+        List<Post> posts;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            posts = BenchmarkData.posts(postCount, commentsPerPost);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Topics {
+
+        @Param({"50", "1000"})
+        int topicCount;
+
+        List<Topic> topics;
+        Set<Integer> subscribedTopicIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            topics = BenchmarkData.topics(topicCount);
+            subscribedTopicIds = BenchmarkData.subscribedTopicIds(topicCount);
+        }
+    }
+
+    @Benchmark
+    public List<PostDto> postListToPostDtoList(Mappers mappers, Posts posts) {
+        return mappers.postMapper.postListToPostDtoList(posts.posts);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TopicDto> topicListToTopicDtoList(Mappers mappers, Topics topics) {
+        return mappers.topicMapper.topicListToTopicDtoList(topics.topics, topics.subscribedTopicIds);
+    }
+}
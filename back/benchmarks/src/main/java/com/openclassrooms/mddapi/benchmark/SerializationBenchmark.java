@@ -0,0 +1,63 @@
+package com.openclassrooms.mddapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.openclassrooms.mddapi.dto.PostsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure la sérialisation JSON de {@link PostsResponse}.
+ *
+ * <p>
+ * L’{@link ObjectMapper} est construit comme celui de Spring Boot (module
+ * java.time, dates ISO-8601). La sortie est écrite dans un flux vide afin de ne
+ * mesurer que la génération du JSON.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int postCount;
+
+    @Param({"0", "20", "200"})
+    int commentsPerPost;
+
+    private ObjectWriter writer;
+    private PostsResponse postsResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(PostsResponse.class);
+
+        postsResponse = new PostsResponse();
+        postsResponse.setPosts(BenchmarkData.postDtos(postCount, commentsPerPost));
+    }
+
+    @Benchmark
+    public void writePostsResponse() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), postsResponse);
+    }
+}
@@ -0,0 +1,81 @@
+package com.openclassrooms.mddapi.benchmark;
+
+import com.openclassrooms.mddapi.configuration.SpringSecurityConfig;
+import com.openclassrooms.mddapi.model.User;
+import com.openclassrooms.mddapi.service.AuthService;
+import com.openclassrooms.mddapi.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure l’émission et la validation des JWT.
+ *
+ * <p>
+ * L’encodeur et le décodeur sont obtenus depuis {@link SpringSecurityConfig},
+ * comme en production, avec un secret HS256 de test.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    /** Taille du cache de tokens vérifiés (0 : chaque décodage vérifie la signature). */
+    @Param({"0", "10000"})
+    long jwtCacheSize;
+
+    private AuthService authService;
+    private JwtDecoder jwtDecoder;
+    private List<User> users;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringSecurityConfig securityConfig = new SpringSecurityConfig(null);
+        Field jwtKey = ReflectionUtils.findField(SpringSecurityConfig.class, "jwtKey");
+        ReflectionUtils.makeAccessible(jwtKey);
+        ReflectionUtils.setField(jwtKey, securityConfig, SECRET);
+        // Registre de révocation vide : seul le contrôle en mémoire est mesuré
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(null, 100_000);
+        jwtDecoder = securityConfig.jwtDecoder(new SimpleMeterRegistry(), jwtCacheSize, tokenRevocationService);
+        // Seul l’encodeur est utilisé par generateToken
+        authService = new AuthService(securityConfig.jwtEncoder(), null, null, null, null, null, null, null);
+
+        users = BenchmarkData.users();
+        tokens = users.stream().map(authService::generateToken).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return authService.generateToken(users.get(next++ % users.size()));
+    }
+
+    @Benchmark
+    public Jwt decodeToken() {
+        return jwtDecoder.decode(tokens[next++ % tokens.length]);
+    }
+}
@@ -0,0 +1,50 @@
+package com.openclassrooms.mddapi.command;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.service.DataGeneratorService;
+import com.openclassrooms.mddapi.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Commande de génération d’un jeu de données synthétique, déterministe.
+ *
+ * <p>
+ * Lancée par l’option {@code --generate-data}, application arrêtée : volumes,
+ * concentration et graine sont lus dans {@code mdd.generator.*}. L’index de
+ * recherche est reconstruit, puis l’application s’arrête.
+ * </p>
+ */
+@Component
+public class GenerateDataCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateDataCommand.class);
+
+    private final DataGeneratorService dataGeneratorService;
+    private final SearchService searchService;
+    private final ConfigurableApplicationContext context;
+
+    public GenerateDataCommand(DataGeneratorService dataGeneratorService, SearchService searchService,
+                               ConfigurableApplicationContext context) {
+        this.dataGeneratorService = dataGeneratorService;
+        this.searchService = searchService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(Constants.GENERATE_DATA_OPTION)) {
+            return;
+        }
+        dataGeneratorService.generate();
+        long start = System.currentTimeMillis();
+        long indexed = searchService.rebuild();
+        logger.info("Search index rebuilt: {} posts in {} ms", indexed, System.currentTimeMillis() - start);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.openclassrooms.mddapi.command;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.ImportReport;
+import com.openclassrooms.mddapi.service.ImportService;
+import com.openclassrooms.mddapi.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Commande d’import en masse de posts et de commentaires.
+ *
+ * <p>
+ * Lancée par l’option {@code --import=<fichier.ndjson>} (répétable), application
+ * arrêtée : les fichiers sont importés dans l’ordre, puis l’index de recherche est
+ * reconstruit et l’application s’arrête. Le code de sortie est 1 si un lot a échoué.
+ * </p>
+ */
+@Component
+public class ImportCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportCommand.class);
+
+    private final ImportService importService;
+    private final SearchService searchService;
+    private final ConfigurableApplicationContext context;
+
+    public ImportCommand(ImportService importService, SearchService searchService, ConfigurableApplicationContext context) {
+        this.importService = importService;
+        this.searchService = searchService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(Constants.IMPORT_OPTION)) {
+            return;
+        }
+        List<String> files = args.getOptionValues(Constants.IMPORT_OPTION);
+        int failedChunks = 0;
+        long imported = 0;
+        for (String file : files) {
+            logger.info("Importing {}", file);
+            ImportReport report = importService.importFile(Path.of(file));
+            failedChunks += report.getFailedChunks();
+            imported += report.getPosts() + report.getComments();
+        }
+        if (imported > 0) {
+            long start = System.currentTimeMillis();
+            long indexed = searchService.rebuild();
+            logger.info("Search index rebuilt: {} posts in {} ms", indexed, System.currentTimeMillis() - start);
+        }
+        int exitCode = failedChunks == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,46 @@
+package com.openclassrooms.mddapi.command;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.service.CounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Commande de recalcul des compteurs dénormalisés (commentaires des posts,
+ * abonnés des topics).
+ *
+ * <p>
+ * Lancée par l’option {@code --recount-counters} : à exécuter une fois après l’ajout
+ * des colonnes de compteurs, ou après un arrêt brutal ayant perdu des deltas non
+ * écrits. L’application s’arrête ensuite.
+ * </p>
+ */
+@Component
+public class RecountCountersCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecountCountersCommand.class);
+
+    private final CounterService counterService;
+    private final ConfigurableApplicationContext context;
+
+    public RecountCountersCommand(CounterService counterService, ConfigurableApplicationContext context) {
+        this.counterService = counterService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(Constants.RECOUNT_COUNTERS_OPTION)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        counterService.recountAll();
+        logger.info("Counters recounted in {} ms", System.currentTimeMillis() - start);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
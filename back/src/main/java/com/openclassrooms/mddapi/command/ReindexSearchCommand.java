@@ -0,0 +1,44 @@
+package com.openclassrooms.mddapi.command;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Commande de reconstruction complète de l’index de recherche.
+ *
+ * <p>
+ * Lancée par l’option {@code --reindex-search} : l’index est reconstruit depuis
+ * la base, puis l’application s’arrête.
+ * </p>
+ */
+@Component
+public class ReindexSearchCommand implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReindexSearchCommand.class);
+
+    private final SearchService searchService;
+    private final ConfigurableApplicationContext context;
+
+    public ReindexSearchCommand(SearchService searchService, ConfigurableApplicationContext context) {
+        this.searchService = searchService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(Constants.REINDEX_SEARCH_OPTION)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long indexed = searchService.rebuild();
+        logger.info("Search index rebuilt: {} posts in {} ms", indexed, System.currentTimeMillis() - start);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
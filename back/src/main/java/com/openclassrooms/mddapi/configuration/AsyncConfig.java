@@ -0,0 +1,68 @@
+package com.openclassrooms.mddapi.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Active l’exécution asynchrone des méthodes annotées {@code @Async}.
+ *
+ * <p>
+ * Les tâches sont exécutées par l’exécuteur auto-configuré par Spring Boot :
+ * un pool de threads classiques par défaut, ou un thread virtuel par tâche
+ * lorsque {@code spring.threads.virtual.enabled=true} (Java 21 et plus).
+ * </p>
+ *
+ * <p>
+ * Les réponses asynchrones de Spring MVC (flux continu du fil) sont écrites par un
+ * pool dédié de {@code mdd.stream.max-concurrent} threads, autant que de flux
+ * simultanés autorisés : un client lent n’occupe pas les threads des tâches
+ * {@code @Async}. La file n’absorbe que le bref chevauchement entre la fin d’un
+ * flux et le retour de son thread au pool.
+ * </p>
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolExecutor streamExecutor;
+
+    /**
+     * Constructeur créant le pool des réponses asynchrones.
+     */
+    public AsyncConfig(MeterRegistry meterRegistry,
+                       @Value("${mdd.stream.max-concurrent:16}") int maxConcurrentStreams) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.streamExecutor = new ThreadPoolExecutor(maxConcurrentStreams, maxConcurrentStreams, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentStreams),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feed-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(streamExecutor, "feed-stream", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(streamExecutor));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streamExecutor.shutdown();
+    }
+}
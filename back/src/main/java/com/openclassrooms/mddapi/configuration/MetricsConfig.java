@@ -0,0 +1,105 @@
+package com.openclassrooms.mddapi.configuration;
+
+import com.openclassrooms.mddapi.metrics.RequestStatisticsIntegrator;
+import com.openclassrooms.mddapi.metrics.RequestStatisticsInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration de l’instrumentation Micrometer.
+ *
+ * <p>
+ * Configure :
+ * <ul>
+ *     <li>Les timers des services annotés {@code @Timed}</li>
+ *     <li>Le comptage par requête des ordres SQL, chargements d’entités et de collections</li>
+ *     <li>Le taux de succès de chaque région du cache de second niveau</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Les endpoints HTTP, le pool HikariCP et les statistiques Hibernate globales
+ * sont instrumentés par Spring Boot Actuator ; le tout est exposé au format
+ * Prometheus sur le port de management.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructeur avec injection du registre de métriques.
+     */
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Active le support de {@code @Timed} sur les beans Spring.
+     *
+     * @return aspect Micrometer
+     */
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Enregistre auprès d’Hibernate les compteurs par requête.
+     *
+     * @return personnalisation des propriétés Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsCustomizer() {
+        RequestStatisticsIntegrator integrator = new RequestStatisticsIntegrator();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, integrator);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(integrator));
+        };
+    }
+
+    /**
+     * Expose le taux de succès de chaque région du cache de second niveau
+     * ({@code hibernate.second.level.cache.hit.ratio}), les succès et échecs
+     * étant déjà comptés par les métriques Hibernate d’Actuator.
+     *
+     * @param entityManagerFactory fabrique dont les statistiques sont lues
+     * @return enregistrement des jauges
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, stats -> {
+                            CacheRegionStatistics regionStatistics = stats.getCacheRegionStatistics(region);
+                            long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+                            return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+                        })
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestStatisticsInterceptor(meterRegistry));
+    }
+}
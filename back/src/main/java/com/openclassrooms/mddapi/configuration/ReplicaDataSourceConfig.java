@@ -0,0 +1,89 @@
+package com.openclassrooms.mddapi.configuration;
+
+import com.openclassrooms.mddapi.datasource.ReadWriteRoutingDataSource;
+import com.openclassrooms.mddapi.datasource.ReplicaConsistency;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration des réplicas en lecture, active si {@code mdd.datasource.replica-urls} est renseigné.
+ *
+ * <p>
+ * Remplace la source de données auto-configurée par :
+ * <ul>
+ *     <li>Le pool principal, configuré par {@code spring.datasource.*}</li>
+ *     <li>Un pool par réplica, copie du pool principal hormis l’URL, les identifiants
+ *     ({@code mdd.datasource.replica-username} / {@code replica-password}, ceux de la base
+ *     principale par défaut) et un délai de connexion court, pour basculer rapidement
+ *     sur la base principale si le réplica est indisponible</li>
+ *     <li>Le routage entre ces pools ({@link ReadWriteRoutingDataSource}), derrière un
+ *     proxy qui n’obtient la connexion qu’à la première requête SQL</li>
+ * </ul>
+ * </p>
+ */
+@Configuration
+@ConditionalOnExpression("'${mdd.datasource.replica-urls:}' != ''")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                       ReplicaConsistency consistency,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${mdd.datasource.replica-urls}") List<String> replicaUrls,
+                                                       @Value("${mdd.datasource.replica-username:}") String username,
+                                                       @Value("${mdd.datasource.replica-password:}") String password,
+                                                       @Value("${mdd.datasource.replica-connection-timeout:PT1S}") Duration connectionTimeout) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName("replica-" + replicas.size());
+            if (StringUtils.hasText(username)) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            // Le pool démarre à la première connexion : un réplica arrêté ne bloque pas le démarrage
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, consistency);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
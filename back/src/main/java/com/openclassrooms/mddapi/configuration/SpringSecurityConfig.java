@@ -1,9 +1,19 @@
 package com.openclassrooms.mddapi.configuration;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.metrics.TimedJwtDecoder;
+import com.openclassrooms.mddapi.security.CachingJwtDecoder;
+import com.openclassrooms.mddapi.security.RevocationCheckingJwtDecoder;
+import com.openclassrooms.mddapi.service.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -35,7 +45,7 @@ import java.nio.file.Paths;
  *     <li>Les endpoints publics et protégés</li>
  *     <li>La gestion des erreurs d’authentification</li>
  *     <li>L’encodage des mots de passe (BCrypt)</li>
- *     <li>L’encodage/décodage des JWT (HS256)</li>
+ *     <li>L’encodage/décodage des JWT (HS256), avec cache et contrôle de révocation</li>
  *     <li>La gestion des rôles via le claim "roles"</li>
  * </ul>
  * </p>
@@ -70,6 +80,8 @@ public class SpringSecurityConfig implements WebMvcConfigurer {
      *     <li>Désactivation CSRF</li>
      *     <li>Session stateless</li>
      *     <li>Endpoints publics : /api/auth/register, /api/auth/login</li>
+     *     <li>Flux d’événements ouvert sans JWT, authentifié par son ticket</li>
+     *     <li>Endpoints Actuator publics : health, prometheus (port de management)</li>
      *     <li>Protection de toutes les autres routes</li>
      *     <li>Support JWT en tant que Resource Server</li>
      * </ul>
@@ -85,6 +97,8 @@ public class SpringSecurityConfig implements WebMvcConfigurer {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.GET, Constants.FEED_EVENTS_PATH).permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex
                         .authenticationEntryPoint(authenticationEntryPoint)
@@ -107,22 +121,39 @@ public class SpringSecurityConfig implements WebMvcConfigurer {
     /**
      * Bean responsable de la validation des JWT.
      *
+     * <p>
+     * Les tokens vérifiés sont mis en cache jusqu’à leur expiration
+     * ({@code mdd.jwt.cache.max-size} entrées au plus, 0 pour désactiver le cache).
+     * La révocation est contrôlée à chaque requête, en aval du cache.
+     * </p>
+     *
+     * @param meterRegistry registre dans lequel sont publiées les métriques de décodage
+     * @param cacheSize nombre maximal de tokens vérifiés conservés
+     * @param tokenRevocationService registre des tokens révoqués
      * @return décodeur JWT configuré en HS256
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry,
+                                 @Value("${mdd.jwt.cache.max-size:10000}") long cacheSize,
+                                 TokenRevocationService tokenRevocationService) {
         SecretKeySpec secretKey = new SecretKeySpec(this.jwtKey.getBytes(), 0, this.jwtKey.getBytes().length, "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        JwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        if (cacheSize > 0) {
+            jwtDecoder = new CachingJwtDecoder(jwtDecoder, cacheSize, meterRegistry);
+        }
+        jwtDecoder = new RevocationCheckingJwtDecoder(jwtDecoder, tokenRevocationService);
+        return new TimedJwtDecoder(jwtDecoder, meterRegistry);
     }
 
     /**
      * Encodeur de mots de passe basé sur BCrypt.
      *
+     * @param strength coût BCrypt (log2 du nombre d’itérations)
      * @return instance BCryptPasswordEncoder
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${mdd.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
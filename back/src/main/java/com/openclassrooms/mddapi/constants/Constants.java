@@ -1,5 +1,7 @@
 package com.openclassrooms.mddapi.constants;
 
+import java.time.Duration;
+
 public final class Constants {
 
     public Constants() {}
@@ -14,9 +16,77 @@ public final class Constants {
 
     public static final String NAME = "name";
 
+    public static final String USER_ID_CLAIM = "userId";
+
     public static final String COLON_SEPARATOR = ":";
 
     public static final String NAME_USED = "Ce nom d'utilisateur est déjà utilisé";
 
     public static final String EMAIL_USED = "Cette adresse e-mail est déjà utilisée";
+
+    public static final String AUTHENTICATION_BUSY = "Service d'authentification momentanément surchargé, veuillez réessayer";
+
+    public static final String TOKEN_REVOKED = "Token révoqué";
+
+    public static final Duration TOKEN_VALIDITY = Duration.ofDays(1);
+
+    public static final String INVALID_CURSOR = "Curseur de pagination invalide";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    public static final String INVALID_SEARCH_QUERY = "Requête de recherche vide";
+
+    public static final int SEARCH_MAX_RESULTS = 1000;
+
+    public static final String REINDEX_SEARCH_OPTION = "reindex-search";
+
+    public static final String RECOUNT_COUNTERS_OPTION = "recount-counters";
+
+    public static final String IMPORT_OPTION = "import";
+
+    public static final String INVALID_IMPORT_LINE = "Ligne JSON invalide : ";
+
+    public static final String UNKNOWN_IMPORT_AUTHOR = "Auteur inconnu : ";
+
+    public static final String UNKNOWN_IMPORT_TOPIC = "Topic inconnu : ";
+
+    public static final String UNKNOWN_IMPORT_POST = "Post inconnu : ";
+
+    public static final String DUPLICATE_IMPORT_REF = "Référence de post déjà importée : ";
+
+    public static final String GENERATE_DATA_OPTION = "generate-data";
+
+    public static final int STREAM_PAGE_SIZE = 200;
+
+    public static final String STREAM_BUSY = "Trop de flux du fil en cours, veuillez réessayer";
+
+    public static final String POSTS_FIELD = "posts";
+
+    public static final String GZIP = "gzip";
+
+    public static final int STREAM_BUFFER_SIZE = 8192;
+
+    public static final String POST_CREATED_EVENT = "post-created";
+
+    public static final String COMMENT_CREATED_EVENT = "comment-created";
+
+    public static final String HEARTBEAT = "heartbeat";
+
+    public static final String FEED_EVENTS_PATH = "/api/post/events";
+
+    public static final int EVENT_TICKET_BYTES = 32;
+
+    public static final long MAX_EVENT_TICKETS = 100_000;
+
+    public static final String INVALID_EVENT_TICKET = "Ticket du flux d'événements invalide ou expiré";
+
+    public static final int MAX_SUBSCRIPTIONS_BATCH = 100;
+
+    public static final String INVALID_SUBSCRIPTIONS = "La liste des topics doit contenir entre 1 et " + MAX_SUBSCRIPTIONS_BATCH + " identifiants";
+
+    public static final String SUMMARY_VIEW = "summary";
 }
@@ -1,14 +1,15 @@
 package com.openclassrooms.mddapi.controller;
 
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
 import com.openclassrooms.mddapi.dto.AuthSuccess;
 import com.openclassrooms.mddapi.dto.LoginRequest;
 import com.openclassrooms.mddapi.dto.RegisterRequest;
-import com.openclassrooms.mddapi.dto.UserResponse;
 import com.openclassrooms.mddapi.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Contrôleur REST dédié à l’authentification et à la gestion du compte utilisateur.
@@ -72,27 +73,34 @@ public class AuthController {
      * Endpoint de déconnexion.
      *
      * <p>
-     * En architecture stateless JWT, la déconnexion est gérée côté client
-     * (suppression du token).
+     * Le token présenté est révoqué côté serveur ; le client le supprime
+     * de son côté.
      * </p>
      *
+     * @param authentication utilisateur actuellement authentifié
      * @return message de confirmation
      */
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(Authentication authentication) {
+        authService.logout(authentication);
         return ResponseEntity.ok().body("disconnected !");
     }
 
     /**
      * Retourne les informations du profil utilisateur authentifié.
      *
+     * <p>
+     * Répond 304 si l’ETag fourni par {@code If-None-Match} est toujours valable.
+     * </p>
+     *
      * @param authentication contexte d’authentification courant
+     * @param webRequest requête courante (en-têtes conditionnels)
      * @return informations utilisateur
      */
     @GetMapping("/me")
-    public ResponseEntity<?> me(Authentication authentication) {
-        UserResponse userResponse = authService.me(authentication);
-        return ResponseEntity.ok(userResponse);
+    @ReplicaRead
+    public ResponseEntity<?> me(Authentication authentication, WebRequest webRequest) {
+        return ConditionalResponses.ok(webRequest, authService.meTag(authentication), () -> authService.me(authentication));
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.openclassrooms.mddapi.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Réponses aux requêtes GET conditionnelles ({@code If-None-Match}).
+ *
+ * <p>
+ * L’ETag est comparé avant la construction du corps : une réponse inchangée
+ * coûte le calcul de l’ETag et un 304 sans corps. Les réponses sont privées
+ * et doivent être revalidées à chaque utilisation ({@code Cache-Control: no-cache, private}),
+ * ce qui remplace l’en-tête {@code no-store} posé par défaut par Spring Security.
+ * </p>
+ *
+ * <p>
+ * Les endpoints concernés sont annotés {@link com.openclassrooms.mddapi.datasource.ReplicaRead} :
+ * l’ETag et le corps sont lus sur le même réplica.
+ * </p>
+ *
+ */
+final class ConditionalResponses {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Retourne un 304 si le client détient déjà la version courante,
+     * sinon la réponse construite par {@code body}.
+     *
+     * @param request requête courante
+     * @param etag ETag de la version courante
+     * @param body construction du corps de la réponse
+     * @return réponse 200 avec ETag, ou 304 (l’ETag est alors posé par {@link WebRequest#checkNotModified(String)})
+     */
+    static <T> ResponseEntity<T> ok(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body.get());
+    }
+}
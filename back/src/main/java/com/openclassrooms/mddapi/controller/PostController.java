@@ -1,10 +1,23 @@
 package com.openclassrooms.mddapi.controller;
 
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
+import com.openclassrooms.mddapi.dto.EventTicketResponse;
+import com.openclassrooms.mddapi.dto.FeedVersion;
 import com.openclassrooms.mddapi.dto.PostRequest;
+import com.openclassrooms.mddapi.service.CommentService;
+import com.openclassrooms.mddapi.service.FeedEventHub;
 import com.openclassrooms.mddapi.service.PostService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Contrôleur REST dédié à la gestion des publications (posts).
@@ -13,8 +26,10 @@ import org.springframework.web.bind.annotation.*;
  * Permet :
  * <ul>
  *     <li>La création d’un post (utilisateur authentifié)</li>
- *     <li>La récupération de tous les posts</li>
+ *     <li>La récupération de tous les posts, en intégralité, par page ou en flux continu</li>
+ *     <li>La réception en direct des nouveaux posts et commentaires (SSE)</li>
  *     <li>La récupération d’un post par identifiant</li>
+ *     <li>La récupération paginée des commentaires d’un post</li>
  * </ul>
  * </p>
  */
@@ -25,13 +40,24 @@ public class PostController {
     /** Service métier gérant la logique liée aux publications. */
     public PostService postService;
 
+    /** Service métier gérant la logique liée aux commentaires. */
+    public CommentService commentService;
+
+    /** Service de diffusion des événements du fil. */
+    public FeedEventHub feedEventHub;
+
     /**
-     * Constructeur avec injection du service des publications.
+     * Constructeur avec injection des services des publications, des commentaires
+     * et des événements du fil.
      *
      * @param postService service métier des posts
+     * @param commentService service métier des commentaires
+     * @param feedEventHub service de diffusion des événements du fil
      */
-    public PostController(PostService postService) {
+    public PostController(PostService postService, CommentService commentService, FeedEventHub feedEventHub) {
         this.postService = postService;
+        this.commentService = commentService;
+        this.feedEventHub = feedEventHub;
     }
 
     /**
@@ -48,13 +74,107 @@ public class PostController {
     }
 
     /**
-     * Retourne la liste complète des posts.
+     * Retourne les posts des topics abonnés.
+     *
+     * <p>
+     * Sans paramètre, retourne la liste complète. Si {@code cursor} ou {@code size}
+     * est fourni, retourne une page du fil accompagnée du curseur de la page suivante.
+     * Avec {@code view=summary}, retourne toujours une page de posts résumés
+     * (extrait et nombre de commentaires).
+     * </p>
      *
+     * <p>
+     * Répond 304 si l’ETag fourni par {@code If-None-Match} est toujours valable :
+     * le fil n’est alors ni lu en base ni sérialisé.
+     * </p>
+     *
+     * @param cursor curseur de la page précédente
+     * @param size taille de page souhaitée
+     * @param view représentation souhaitée ({@code summary} pour la vue résumée)
+     * @param authentication utilisateur actuellement authentifié
+     * @param webRequest requête courante (en-têtes conditionnels)
      * @return liste des publications
      */
     @GetMapping
-    public ResponseEntity<?> getAll(Authentication authentication) {
-        return ResponseEntity.ok(postService.getAll(authentication));
+    @ReplicaRead
+    public ResponseEntity<?> getAll(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer size,
+                                    @RequestParam(required = false) String view,
+                                    Authentication authentication,
+                                    WebRequest webRequest) {
+        FeedVersion feed = postService.feedVersion(authentication);
+        return ConditionalResponses.ok(webRequest, feed.getTag(), () -> {
+            if (Constants.SUMMARY_VIEW.equals(view)) {
+                return postService.getSummaryPage(feed, cursor, size);
+            }
+            if (cursor == null && size == null) {
+                return postService.getAll(feed);
+            }
+            return postService.getPage(feed, cursor, size);
+        });
+    }
+
+    /**
+     * Retourne l’intégralité du fil des topics abonnés en flux continu.
+     *
+     * <p>
+     * Le JSON (même format que {@code GET /api/post}) est écrit au fur et à mesure
+     * de la lecture en base, compressé en gzip si le client l’accepte : le premier
+     * octet est émis sans attendre la construction du fil complet.
+     * </p>
+     *
+     * <p>
+     * Répond 503 si {@code mdd.stream.max-concurrent} flux sont déjà en cours.
+     * </p>
+     *
+     * @param acceptEncoding encodages acceptés par le client
+     * @param authentication utilisateur actuellement authentifié
+     * @return corps de réponse écrit de façon asynchrone
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                        Authentication authentication) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains(Constants.GZIP);
+        StreamingResponseBody feed = postService.openStream(authentication);
+        StreamingResponseBody body = gzip
+                ? outputStream -> feed.writeTo(new GZIPOutputStream(outputStream, Constants.STREAM_BUFFER_SIZE, true))
+                : feed;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, Constants.GZIP);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Émet un ticket d’ouverture du flux d’événements, valable une fois et quelques secondes.
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @return ticket à transmettre à {@code GET /api/post/events}
+     */
+    @PostMapping("/events/ticket")
+    public ResponseEntity<EventTicketResponse> eventsTicket(Authentication authentication) {
+        return ResponseEntity.ok(new EventTicketResponse(feedEventHub.issueTicket(authentication)));
+    }
+
+    /**
+     * Ouvre un flux d’événements en direct (Server-Sent Events) sur les topics abonnés.
+     *
+     * <p>
+     * Pousse les événements {@value Constants#POST_CREATED_EVENT} et
+     * {@value Constants#COMMENT_CREATED_EVENT}. {@code EventSource} ne permettant pas
+     * d’envoyer d’en-tête, la connexion est authentifiée par un ticket à usage unique
+     * ({@code POST /api/post/events/ticket}) plutôt que par le JWT.
+     * </p>
+     *
+     * @param ticket ticket d’ouverture
+     * @return émetteur SSE de la connexion
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) String ticket) {
+        return feedEventHub.connect(ticket);
     }
 
     /**
@@ -68,4 +188,19 @@ public class PostController {
         return ResponseEntity.ok(postService.getById(id));
     }
 
+    /**
+     * Retourne une page des commentaires d’un post.
+     *
+     * @param id identifiant du post
+     * @param cursor curseur de la page précédente
+     * @param size taille de page souhaitée
+     * @return commentaires du post et curseur de la page suivante
+     */
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<?> getComments(@PathVariable Integer id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(commentService.getPage(id, cursor, size));
+    }
+
 }
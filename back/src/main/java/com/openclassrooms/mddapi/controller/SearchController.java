@@ -0,0 +1,49 @@
+package com.openclassrooms.mddapi.controller;
+
+import com.openclassrooms.mddapi.dto.SearchResponse;
+import com.openclassrooms.mddapi.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contrôleur REST dédié à la recherche plein texte.
+ *
+ * <p>
+ * Permet la recherche dans les titres, contenus et commentaires des posts
+ * des topics auxquels l’utilisateur est abonné.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    /** Service métier gérant la recherche. */
+    public SearchService searchService;
+
+    /**
+     * Constructeur avec injection du service de recherche.
+     *
+     * @param searchService service métier de recherche
+     */
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Recherche des posts, classés par pertinence.
+     *
+     * @param q texte recherché
+     * @param page numéro de page, à partir de 0
+     * @param size taille de page souhaitée
+     * @param authentication utilisateur actuellement authentifié
+     * @return page de posts résumés et numéro de la page suivante
+     */
+    @GetMapping
+    public ResponseEntity<SearchResponse> search(@RequestParam String q,
+                                                 @RequestParam(required = false) Integer page,
+                                                 @RequestParam(required = false) Integer size,
+                                                 Authentication authentication) {
+        return ResponseEntity.ok(searchService.search(authentication, q, page, size));
+    }
+}
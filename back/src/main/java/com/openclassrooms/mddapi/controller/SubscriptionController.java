@@ -1,6 +1,9 @@
 package com.openclassrooms.mddapi.controller;
 
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.SubscriptionsRequest;
 import com.openclassrooms.mddapi.service.SubscriptionService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -11,8 +14,8 @@ import org.springframework.web.bind.annotation.*;
  * <p>
  * Permet à un utilisateur authentifié :
  * <ul>
- *     <li>De s’abonner à un topic</li>
- *     <li>De se désabonner d’un topic</li>
+ *     <li>De s’abonner à un topic, ou à plusieurs en une requête</li>
+ *     <li>De se désabonner d’un topic, ou de plusieurs en une requête</li>
  * </ul>
  * </p>
  */
@@ -57,5 +60,31 @@ public class SubscriptionController {
         subscriptionService.unsubscribe(authentication, id);
         return ResponseEntity.ok().body("Unsubscription completed !");
     }
+
+    /**
+     * Abonne l’utilisateur authentifié à plusieurs topics en une seule requête.
+     *
+     * @param request identifiants des topics (au plus {@value Constants#MAX_SUBSCRIPTIONS_BATCH})
+     * @param authentication utilisateur actuellement authentifié
+     * @return message de confirmation
+     */
+    @PostMapping("/subscriptions")
+    public ResponseEntity<?> subscribeAll(@Valid @RequestBody SubscriptionsRequest request, Authentication authentication) {
+        int created = subscriptionService.subscribeAll(authentication, request.getTopicIds());
+        return ResponseEntity.ok().body("Subscriptions completed : " + created + " !");
+    }
+
+    /**
+     * Désabonne l’utilisateur authentifié de plusieurs topics en une seule requête.
+     *
+     * @param request identifiants des topics (au plus {@value Constants#MAX_SUBSCRIPTIONS_BATCH})
+     * @param authentication utilisateur actuellement authentifié
+     * @return message de confirmation
+     */
+    @DeleteMapping("/subscriptions")
+    public ResponseEntity<?> unsubscribeAll(@Valid @RequestBody SubscriptionsRequest request, Authentication authentication) {
+        int deleted = subscriptionService.unsubscribeAll(authentication, request.getTopicIds());
+        return ResponseEntity.ok().body("Unsubscriptions completed : " + deleted + " !");
+    }
     
 }
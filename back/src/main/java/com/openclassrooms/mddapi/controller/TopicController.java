@@ -1,10 +1,12 @@
 package com.openclassrooms.mddapi.controller;
 
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
 import com.openclassrooms.mddapi.dto.TopicRequest;
 import com.openclassrooms.mddapi.service.TopicService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Contrôleur REST dédié à la gestion des topics.
@@ -48,12 +50,18 @@ public class TopicController {
     /**
      * Retourne la liste des topics disponibles.
      *
+     * <p>
+     * Répond 304 si l’ETag fourni par {@code If-None-Match} est toujours valable.
+     * </p>
+     *
      * @param authentication utilisateur actuellement authentifié
+     * @param webRequest requête courante (en-têtes conditionnels)
      * @return liste des topics
      */
     @GetMapping
-    public ResponseEntity<?> getAll(Authentication authentication) {
-        return ResponseEntity.ok(topicService.getAll(authentication));
+    @ReplicaRead
+    public ResponseEntity<?> getAll(Authentication authentication, WebRequest webRequest) {
+        return ConditionalResponses.ok(webRequest, topicService.catalogTag(authentication), () -> topicService.getAll(authentication));
     }
 
 }
@@ -0,0 +1,113 @@
+package com.openclassrooms.mddapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Source de données routant chaque connexion vers la base principale ou un réplica.
+ *
+ * <p>
+ * Une connexion va à un réplica (choisi à tour de rôle, puis conservé pour la portée)
+ * seulement dans une portée {@link ReplicaRead}, hors transaction en écriture, et si
+ * l’utilisateur courant n’a pas écrit récemment. Toute connexion obtenue pour une
+ * transaction en écriture enregistre une écriture de l’utilisateur courant.
+ * </p>
+ *
+ * <p>
+ * La décision dépend de la transaction en cours : elle doit être prise au premier
+ * accès à la base, et non à l’ouverture de la transaction. Cette source est donc
+ * utilisée derrière un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ * Un réplica indisponible est remplacé par la base principale.
+ * </p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<? extends DataSource> replicas;
+    private final int replicaCount;
+    private final ReplicaConsistency consistency;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, ReplicaConsistency consistency) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.replicaCount = replicas.size();
+        this.consistency = consistency;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer userId = ReplicaConsistency.currentUserId();
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            consistency.onWrite(userId);
+            return PRIMARY;
+        }
+        ReplicaRouting.Scope scope = ReplicaRouting.current();
+        if (replicaCount == 0 || scope == null || scope.isPrimary() || consistency.isRecentWriter(userId)) {
+            return PRIMARY;
+        }
+        return scope.replica(() -> Math.floorMod(nextReplica.getAndIncrement(), replicaCount));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            logger.warn("Replica unavailable, reading from primary: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return target.getConnection(username, password);
+        } catch (SQLException e) {
+            logger.warn("Replica unavailable, reading from primary: {}", e.getMessage());
+            return primary.getConnection(username, password);
+        }
+    }
+
+    /**
+     * Ferme les pools des réplicas ; celui de la base principale reste géré par son propriétaire.
+     */
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
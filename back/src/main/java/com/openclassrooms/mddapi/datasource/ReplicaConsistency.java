@@ -0,0 +1,76 @@
+package com.openclassrooms.mddapi.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.mddapi.constants.Constants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Garanties de cohérence des lectures sur réplicas.
+ *
+ * <p>
+ * Un réplica peut avoir jusqu’à {@code mdd.datasource.read-your-writes-window} de
+ * retard sur la base principale :
+ * <ul>
+ *     <li>Un utilisateur qui vient d’écrire lit sur la base principale pendant cette
+ *     fenêtre, et voit donc ses propres écritures</li>
+ *     <li>Un ETag est lu dans la même portée que le corps de la réponse, donc sur le
+ *     même réplica, avant lui : il ne décrit jamais un état plus récent que le corps</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class ReplicaConsistency {
+
+    private final boolean enabled;
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReplicaConsistency(@Value("${mdd.datasource.replica-urls:}") List<String> replicaUrls,
+                              @Value("${mdd.datasource.read-your-writes-window:PT5S}") Duration window,
+                              @Value("${mdd.principal.cache.max-size:10000}") long maxWriters) {
+        this.enabled = replicaUrls.stream().anyMatch(StringUtils::hasText);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxWriters)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * Enregistre une écriture de l’utilisateur.
+     *
+     * @param userId identifiant de l’utilisateur, {@code null} hors requête authentifiée
+     */
+    public void onWrite(Integer userId) {
+        if (enabled && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @param userId identifiant de l’utilisateur, éventuellement {@code null}
+     * @return {@code true} si l’utilisateur a écrit pendant la fenêtre
+     */
+    public boolean isRecentWriter(Integer userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    /**
+     * @return identifiant de l’utilisateur de la requête courante, porté par son JWT
+     */
+    static Integer currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication
+                && jwtAuthentication.getToken().getClaim(Constants.USER_ID_CLAIM) instanceof Number userId) {
+            return userId.intValue();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.openclassrooms.mddapi.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Méthode de lecture pouvant être servie par un réplica.
+ *
+ * <p>
+ * Lorsque des réplicas sont configurés ({@code mdd.datasource.replica-urls}), les
+ * requêtes exécutées pendant l’appel, hors transaction en écriture, sont envoyées
+ * à un même réplica, sauf si l’utilisateur courant a écrit depuis moins de
+ * {@code mdd.datasource.read-your-writes-window}. Sans réplica, l’annotation est sans effet.
+ * </p>
+ *
+ * <p>
+ * Les données lues peuvent avoir le retard de réplication : elles ne doivent pas
+ * alimenter un cache applicatif (voir {@link ReplicaRouting#onPrimary}).
+ * </p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
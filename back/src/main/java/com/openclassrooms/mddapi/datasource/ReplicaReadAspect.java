@@ -0,0 +1,24 @@
+package com.openclassrooms.mddapi.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ouvre une portée réplica autour des méthodes annotées {@link ReplicaRead}.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.openclassrooms.mddapi.datasource.ReplicaRead)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReplicaRouting.Scope previous = ReplicaRouting.enterReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouting.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.openclassrooms.mddapi.datasource;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Portée de routage des lectures du thread courant.
+ *
+ * <p>
+ * Une portée « réplica » est ouverte par {@link ReplicaRead} ; le réplica est choisi
+ * à la première connexion, puis conservé jusqu’à la fin de la portée afin que les
+ * requêtes d’un même appel voient le même état. Une portée « principale »
+ * ({@link #onPrimary(Supplier)}) l’emporte sur toute portée englobante.
+ * </p>
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    /**
+     * Exécute une lecture sur la base principale, y compris depuis une méthode
+     * {@link ReplicaRead} : à utiliser pour les lectures qui alimentent un cache.
+     *
+     * @param read lecture à exécuter
+     * @return résultat de la lecture
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Scope previous = SCOPE.get();
+        SCOPE.set(Scope.PRIMARY);
+        try {
+            return read.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Ouvre une portée réplica, sauf dans une portée déjà ouverte.
+     *
+     * @return portée à restaurer par {@link #restore(Scope)}
+     */
+    static Scope enterReplica() {
+        Scope previous = SCOPE.get();
+        if (previous == null) {
+            SCOPE.set(new Scope(false));
+        }
+        return previous;
+    }
+
+    static void restore(Scope previous) {
+        if (previous == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(previous);
+        }
+    }
+
+    /**
+     * @return portée courante, ou {@code null} hors de toute portée
+     */
+    static Scope current() {
+        return SCOPE.get();
+    }
+
+    static final class Scope {
+
+        private static final Scope PRIMARY = new Scope(true);
+
+        private final boolean primary;
+        private int replica = -1;
+
+        private Scope(boolean primary) {
+            this.primary = primary;
+        }
+
+        boolean isPrimary() {
+            return primary;
+        }
+
+        /**
+         * @param next choix d’un réplica, appelé une seule fois par portée
+         * @return index du réplica de la portée
+         */
+        int replica(IntSupplier next) {
+            if (replica < 0) {
+                replica = next.getAsInt();
+            }
+            return replica;
+        }
+    }
+}
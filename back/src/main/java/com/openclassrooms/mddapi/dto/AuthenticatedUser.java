@@ -0,0 +1,20 @@
+package com.openclassrooms.mddapi.dto;
+
+import com.openclassrooms.mddapi.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser {
+
+    private Integer id;
+    private String email;
+    private String name;
+
+    public AuthenticatedUser(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+    }
+}
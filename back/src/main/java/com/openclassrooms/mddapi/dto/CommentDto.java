@@ -1,16 +1,36 @@
 package com.openclassrooms.mddapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Setter
 @Getter
+@NoArgsConstructor
 public class CommentDto {
 
     private Integer id;
     private LocalDateTime date;
     private String content;
     private String userName;
+
+    /** Post parent, utilisé pour regrouper les commentaires, non exposé. */
+    @JsonIgnore
+    private Integer postId;
+
+    /** Clé de pagination, non exposée. */
+    @JsonIgnore
+    private LocalDateTime createdAt;
+
+    public CommentDto(Integer id, LocalDateTime date, String content, String userName, Integer postId, LocalDateTime createdAt) {
+        this.id = id;
+        this.date = date;
+        this.content = content;
+        this.userName = userName;
+        this.postId = postId;
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
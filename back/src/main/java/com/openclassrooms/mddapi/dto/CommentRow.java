@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Commentaire prêt à être inséré par lot : auteur et post déjà résolus.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentRow {
+
+    private Integer authorId;
+    private Integer postId;
+    private LocalDateTime date;
+    private String content;
+}
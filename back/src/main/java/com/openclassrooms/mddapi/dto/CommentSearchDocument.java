@@ -0,0 +1,17 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Champs d’un commentaire indexés pour la recherche plein texte.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentSearchDocument {
+
+    private Integer commentId;
+    private Integer postId;
+    private Integer topicId;
+    private String content;
+}
@@ -9,4 +9,5 @@ import java.util.List;
 @Setter
 public class CommentsResponse {
     private List<CommentDto> comments;
+    private String nextCursor;
 }
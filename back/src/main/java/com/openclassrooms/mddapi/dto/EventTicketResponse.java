@@ -0,0 +1,12 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.Getter;
+
+@Getter
+public class EventTicketResponse {
+    private final String ticket;
+
+    public EventTicketResponse(String ticket) {
+        this.ticket = ticket;
+    }
+}
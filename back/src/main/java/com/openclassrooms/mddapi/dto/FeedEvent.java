@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class FeedEvent {
+
+    private String type;
+    private Integer postId;
+    private Integer commentId;
+    private Integer topicId;
+    private String title;
+    private String authorName;
+    private LocalDateTime date;
+}
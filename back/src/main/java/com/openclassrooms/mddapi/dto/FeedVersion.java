@@ -0,0 +1,23 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Version du fil d’un utilisateur, lue une seule fois par requête : topics abonnés,
+ * dernier post de chacun et ETag qui en dérive. La même lecture sert à la validation
+ * de l’ETag et au rattrapage de la timeline.
+ */
+@Getter
+@AllArgsConstructor
+public class FeedVersion {
+
+    private Integer userId;
+    private Set<Integer> topicIds;
+    /** Identifiant du dernier post de chaque topic abonné, 0 si le topic n’a aucun post. */
+    private Map<Integer, Integer> lastPostIds;
+    private String tag;
+}
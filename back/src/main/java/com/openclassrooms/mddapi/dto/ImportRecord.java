@@ -0,0 +1,31 @@
+package com.openclassrooms.mddapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d’un fichier d’import NDJSON : un post ou un commentaire, distingués
+ * par le champ {@code type}.
+ */
+@Getter
+@Setter
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = ImportedPost.class, name = "post"),
+    @JsonSubTypes.Type(value = ImportedComment.class, name = "comment")
+})
+public abstract class ImportRecord {
+
+    /** Adresse e-mail d’un utilisateur existant. */
+    @NotBlank
+    private String author;
+
+    @NotNull
+    private LocalDateTime date;
+}
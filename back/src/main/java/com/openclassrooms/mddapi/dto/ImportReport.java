@@ -0,0 +1,25 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bilan d’un import NDJSON.
+ */
+@Getter
+@Setter
+public class ImportReport {
+
+    private long posts;
+    private long comments;
+    private long rejectedLines;
+    private int failedChunks;
+    private long durationMillis;
+
+    /**
+     * @return nombre de lignes écrites par seconde
+     */
+    public long getRecordsPerSecond() {
+        return (posts + comments) * 1000 / Math.max(durationMillis, 1);
+    }
+}
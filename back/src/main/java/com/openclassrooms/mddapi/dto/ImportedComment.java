@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ImportedComment extends ImportRecord {
+
+    /** Référence du post commenté, importé plus haut dans le fichier. */
+    @NotBlank
+    private String post;
+
+    @NotBlank
+    @Size(max = 1000)
+    private String content;
+}
@@ -0,0 +1,27 @@
+package com.openclassrooms.mddapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ImportedPost extends ImportRecord {
+
+    /** Référence du post dans la source, utilisée par ses commentaires. */
+    @NotBlank
+    private String ref;
+
+    /** Titre d’un topic existant. */
+    @NotBlank
+    private String topic;
+
+    @NotBlank
+    @Size(max = 100)
+    private String title;
+
+    @NotBlank
+    @Size(max = 2500)
+    private String content;
+}
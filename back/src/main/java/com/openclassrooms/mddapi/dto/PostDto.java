@@ -1,6 +1,8 @@
 package com.openclassrooms.mddapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
@@ -8,6 +10,7 @@ import java.util.List;
 
 @Setter
 @Getter
+@NoArgsConstructor
 public class PostDto {
 
     private Integer id;
@@ -17,4 +20,22 @@ public class PostDto {
     private String authorName;
     private String topicTitle;
     private List<CommentDto> comments;
+    private Long commentCount;
+    private String commentsNextCursor;
+
+    /** Clé de pagination, non exposée. */
+    @JsonIgnore
+    private LocalDateTime createdAt;
+
+    public PostDto(Integer id, LocalDateTime date, String title, String content,
+                   String authorName, String topicTitle, LocalDateTime createdAt, Long commentCount) {
+        this.id = id;
+        this.date = date;
+        this.title = title;
+        this.content = content;
+        this.authorName = authorName;
+        this.topicTitle = topicTitle;
+        this.createdAt = createdAt;
+        this.commentCount = commentCount;
+    }
 }
\ No newline at end of file
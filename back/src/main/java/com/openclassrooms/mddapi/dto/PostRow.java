@@ -0,0 +1,20 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Post prêt à être inséré par lot : auteur et topic déjà résolus.
+ */
+@Getter
+@AllArgsConstructor
+public class PostRow {
+
+    private Integer authorId;
+    private Integer topicId;
+    private LocalDateTime date;
+    private String title;
+    private String content;
+}
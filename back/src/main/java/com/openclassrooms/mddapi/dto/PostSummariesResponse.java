@@ -0,0 +1,13 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PostSummariesResponse {
+    private List<PostSummaryDto> posts;
+    private String nextCursor;
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.mddapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+@NoArgsConstructor
+public class PostSummaryDto {
+
+    private Integer id;
+    private LocalDateTime date;
+    private String title;
+    private String excerpt;
+    private String authorName;
+    private String topicTitle;
+    private Long commentCount;
+
+    /** Clé de pagination, non exposée. */
+    @JsonIgnore
+    private LocalDateTime createdAt;
+
+    public PostSummaryDto(Integer id, LocalDateTime date, String title, String excerpt,
+                          String authorName, String topicTitle, LocalDateTime createdAt, Long commentCount) {
+        this.id = id;
+        this.date = date;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.authorName = authorName;
+        this.topicTitle = topicTitle;
+        this.createdAt = createdAt;
+        this.commentCount = commentCount;
+    }
+}
@@ -9,4 +9,5 @@ import java.util.List;
 @Setter
 public class PostsResponse {
     private List<PostDto> posts;
+    private String nextCursor;
 }
@@ -0,0 +1,17 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Champs d’un post indexés pour la recherche plein texte.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchDocument {
+
+    private Integer postId;
+    private Integer topicId;
+    private String title;
+    private String content;
+}
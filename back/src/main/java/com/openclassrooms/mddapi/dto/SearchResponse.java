@@ -0,0 +1,14 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SearchResponse {
+    private List<PostSummaryDto> posts;
+    private long totalHits;
+    private Integer nextPage;
+}
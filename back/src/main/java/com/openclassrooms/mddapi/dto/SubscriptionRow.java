@@ -0,0 +1,15 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Abonnement prêt à être inséré par lot.
+ */
+@Getter
+@AllArgsConstructor
+public class SubscriptionRow {
+
+    private Integer userId;
+    private Integer topicId;
+}
@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SubscriptionsRequest {
+
+    @NotEmpty(message = Constants.INVALID_SUBSCRIPTIONS)
+    @Size(max = Constants.MAX_SUBSCRIPTIONS_BATCH, message = Constants.INVALID_SUBSCRIPTIONS)
+    private List<@NotNull(message = Constants.INVALID_SUBSCRIPTIONS) Integer> topicIds;
+}
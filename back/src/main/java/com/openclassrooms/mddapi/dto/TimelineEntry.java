@@ -0,0 +1,15 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TimelineEntry {
+
+    private Integer postId;
+    private Integer topicId;
+    private LocalDateTime createdAt;
+}
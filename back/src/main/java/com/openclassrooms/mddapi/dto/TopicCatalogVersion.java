@@ -0,0 +1,23 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Empreinte de la table des topics, lue en base pour détecter une modification du catalogue.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class TopicCatalogVersion {
+
+    private Long topicCount;
+    private Integer maxId;
+    private LocalDateTime maxUpdatedAt;
+    private Long subscriberTotal;
+}
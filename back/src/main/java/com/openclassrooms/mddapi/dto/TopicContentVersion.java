@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version du contenu d’un topic, lue sur sa ligne : dernier post créé et dernière
+ * modification de ses posts (nouveau post, nouveaux commentaires, auteur renommé).
+ */
+@Getter
+@AllArgsConstructor
+public class TopicContentVersion {
+
+    private Integer topicId;
+    private Integer lastPostId;
+    private LocalDateTime contentUpdatedAt;
+}
@@ -11,4 +11,5 @@ public class TopicDto {
     private String title;
     private String description;
     private boolean subscription;
+    private long subscriberCount;
 }
\ No newline at end of file
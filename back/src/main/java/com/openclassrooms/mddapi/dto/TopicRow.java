@@ -0,0 +1,18 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic prêt à être inséré par lot.
+ */
+@Getter
+@AllArgsConstructor
+public class TopicRow {
+
+    private String title;
+    private String description;
+    private LocalDateTime createdAt;
+}
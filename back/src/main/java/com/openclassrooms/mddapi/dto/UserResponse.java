@@ -22,4 +22,11 @@ public class UserResponse {
         this.name = user.getName();
         this.topics = new ArrayList<>();
     }
+
+    public UserResponse(AuthenticatedUser user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+        this.topics = new ArrayList<>();
+    }
 }
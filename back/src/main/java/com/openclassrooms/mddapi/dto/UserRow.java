@@ -0,0 +1,19 @@
+package com.openclassrooms.mddapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Utilisateur prêt à être inséré par lot, mot de passe déjà haché.
+ */
+@Getter
+@AllArgsConstructor
+public class UserRow {
+
+    private String email;
+    private String name;
+    private String password;
+    private LocalDateTime createdAt;
+}
@@ -10,6 +10,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -87,6 +88,17 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(message));
     }
 
+    /**
+     * Gère la déconnexion d’un client pendant une réponse asynchrone
+     * (flux d’événements, flux du fil) : aucune réponse ne peut plus être écrite.
+     *
+     * @param ex exception signalant une réponse inutilisable
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+        logger.debug("Client disconnected: {}", ex.getMessage());
+    }
+
     /**
      * Gère les erreurs liées aux opérations IO (upload, fichiers).
      *
@@ -0,0 +1,51 @@
+package com.openclassrooms.mddapi.generator;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Loi de Zipf sur les rangs {@code 0..n-1} : le rang {@code k} est tiré avec une
+ * probabilité proportionnelle à {@code 1 / (k + 1)^exposant}.
+ *
+ * <p>
+ * La fonction de répartition est précalculée : un tirage coûte une recherche
+ * dichotomique, et la suite des tirages ne dépend que du générateur fourni.
+ * </p>
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    /**
+     * @param size nombre de rangs
+     * @param exponent exposant (0 pour une loi uniforme, environ 1 pour une forte concentration)
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        this.cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * @param random générateur des tirages
+     * @return rang tiré, dans {@code 0..size()-1}
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
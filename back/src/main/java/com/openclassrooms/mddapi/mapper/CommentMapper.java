@@ -11,6 +11,7 @@ import java.util.List;
 public interface CommentMapper {
 
     @Mapping(target = "userName", source = "author.name")
+    @Mapping(target = "postId", source = "post.id")
     CommentDto commentToCommentDto(Comment comment);
 
     List<CommentDto> commentListToCommentDtoList(List<Comment> comments);
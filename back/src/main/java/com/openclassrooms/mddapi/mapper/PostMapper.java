@@ -13,6 +13,7 @@ public interface PostMapper {
     @Mapping(target = "authorName", source = "author.name")
     @Mapping(target = "topicTitle", source = "topic.title")
     @Mapping(target = "comments", source = "comments")
+    @Mapping(target = "commentsNextCursor", ignore = true)
     PostDto postToPostDto(Post post);
 
     List<PostDto> postListToPostDtoList(List<Post> post);
@@ -5,22 +5,28 @@ import com.openclassrooms.mddapi.model.Topic;
 import org.mapstruct.*;
 
 import java.util.List;
+import java.util.Set;
 
 @Mapper(componentModel = "spring")
 public interface TopicMapper {
 
     @Mapping(target = "subscription", source = "topic", qualifiedByName = "isSubscribed")
-    TopicDto topicToTopicDto(Topic topic, @Context Integer userId);
+    TopicDto topicToTopicDto(Topic topic, @Context Set<Integer> subscribedTopicIds);
 
-    List<TopicDto> topicListToTopicDtoList(List<Topic> topics, @Context Integer userId);
+    List<TopicDto> topicListToTopicDtoList(List<Topic> topics, @Context Set<Integer> subscribedTopicIds);
+
+    @Mapping(target = "subscription", source = "id", qualifiedByName = "isSubscribedId")
+    TopicDto withSubscription(TopicDto topic, @Context Set<Integer> subscribedTopicIds);
+
+    List<TopicDto> withSubscriptions(List<TopicDto> topics, @Context Set<Integer> subscribedTopicIds);
 
     @Named("isSubscribed")
-    default boolean isSubscribed(Topic topic, @Context Integer userId) {
-        return topic.getSubscriptions() != null &&
-                topic.getSubscriptions().stream()
-                        .anyMatch(sub ->
-                                sub.getUser() != null &&
-                                        sub.getUser().getId().equals(userId)
-                        );
+    default boolean isSubscribed(Topic topic, @Context Set<Integer> subscribedTopicIds) {
+        return subscribedTopicIds.contains(topic.getId());
+    }
+
+    @Named("isSubscribedId")
+    default boolean isSubscribed(Integer topicId, @Context Set<Integer> subscribedTopicIds) {
+        return subscribedTopicIds.contains(topicId);
     }
 }
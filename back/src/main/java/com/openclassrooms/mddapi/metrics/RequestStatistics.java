@@ -0,0 +1,74 @@
+package com.openclassrooms.mddapi.metrics;
+
+/**
+ * Compteurs de travail base de données de la requête HTTP en cours.
+ *
+ * <p>
+ * Les compteurs sont propres au thread de la requête : ils sont activés par
+ * {@link RequestStatisticsInterceptor} au début de la requête, alimentés par
+ * Hibernate pendant son traitement, puis relevés à la fin de celle-ci.
+ * Hors requête (tâches planifiées, démarrage), les incréments sont ignorés.
+ * </p>
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+    private long collectionFetches;
+
+    private RequestStatistics() {
+    }
+
+    /**
+     * Active les compteurs pour le thread courant.
+     */
+    static void start() {
+        CURRENT.set(new RequestStatistics());
+    }
+
+    /**
+     * Désactive les compteurs du thread courant.
+     *
+     * @return compteurs relevés, ou {@code null} s’ils n’étaient pas actifs
+     */
+    static RequestStatistics stop() {
+        RequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    static void statementExecuted() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    long getStatements() {
+        return statements;
+    }
+
+    long getEntityLoads() {
+        return entityLoads;
+    }
+
+    long getCollectionFetches() {
+        return collectionFetches;
+    }
+}
@@ -0,0 +1,44 @@
+package com.openclassrooms.mddapi.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Branche Hibernate sur {@link RequestStatistics}.
+ *
+ * <p>
+ * Compte, pour la requête HTTP en cours :
+ * <ul>
+ *     <li>Les ordres SQL préparés (via {@link StatementInspector})</li>
+ *     <li>Les entités chargées (événement {@code POST_LOAD})</li>
+ *     <li>Les collections initialisées (événement {@code INIT_COLLECTION})</li>
+ * </ul>
+ * </p>
+ */
+public class RequestStatisticsIntegrator implements Integrator, StatementInspector {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestStatistics.entityLoaded());
+        listeners.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> RequestStatistics.collectionFetched());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementExecuted();
+        return sql;
+    }
+}
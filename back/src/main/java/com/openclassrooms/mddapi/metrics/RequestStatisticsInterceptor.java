@@ -0,0 +1,70 @@
+package com.openclassrooms.mddapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Publie, pour chaque endpoint, la distribution du travail base de données
+ * effectué par requête.
+ *
+ * <p>
+ * Métriques publiées, étiquetées par méthode HTTP et motif d’URI :
+ * <ul>
+ *     <li>{@code mdd.request.jdbc.statements} : ordres SQL exécutés</li>
+ *     <li>{@code mdd.request.entity.loads} : entités chargées</li>
+ *     <li>{@code mdd.request.collection.fetches} : collections initialisées</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Pour un traitement asynchrone (flux du fil, SSE), les compteurs du thread de la
+ * requête sont abandonnés lorsque la requête passe en mode asynchrone : le travail
+ * exécuté ensuite sur un autre thread n’est pas compté, et aucune mesure n’est
+ * publiée pour ce premier passage.
+ * </p>
+ */
+public class RequestStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatisticsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatistics statistics = RequestStatistics.stop();
+        if (statistics == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        record("mdd.request.jdbc.statements", request.getMethod(), uri, statistics.getStatements());
+        record("mdd.request.entity.loads", request.getMethod(), uri, statistics.getEntityLoads());
+        record("mdd.request.collection.fetches", request.getMethod(), uri, statistics.getCollectionFetches());
+    }
+
+    private void record(String name, String method, String uri, long amount) {
+        DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(amount);
+    }
+}
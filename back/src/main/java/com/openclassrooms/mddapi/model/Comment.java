@@ -10,7 +10,9 @@ import org.springframework.data.annotation.CreatedDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "comments_post_created_index", columnList = "posts_id, created_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
@@ -11,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "posts_topic_created_index", columnList = "topic_id, created_at, id"),
+    @Index(name = "posts_created_index", columnList = "created_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +49,11 @@ public class Post {
     @OrderBy("createdAt DESC")
     private List<Comment> comments;
 
+    /** Nombre de commentaires, tenu à jour par lots (voir CounterService). */
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,47 @@
+package com.openclassrooms.mddapi.model;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Révocation persistée, rechargée au démarrage.
+ *
+ * <p>
+ * Deux formes :
+ * <ul>
+ *     <li>{@code jti} renseigné : un token précis est révoqué (déconnexion)</li>
+ *     <li>{@code userId} et {@code issuedBefore} renseignés : tous les tokens de
+ *     l’utilisateur émis avant cet instant sont révoqués (mise à jour du compte)</li>
+ * </ul>
+ * {@code expiresAt} indique à partir de quand la révocation est sans objet,
+ * les tokens concernés étant de toute façon expirés.
+ * </p>
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "revoked_tokens_expires_index", columnList = "expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(name = "issued_before")
+    private Instant issuedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -4,7 +4,9 @@ import lombok.*;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "subscription")
+@Table(name = "subscription", uniqueConstraints = {
+    @UniqueConstraint(name = "subscription_user_topic_unique", columnNames = {"user_id", "topic_id"})
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,6 +1,9 @@
 package com.openclassrooms.mddapi.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
@@ -11,6 +14,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "topics")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topics")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +41,24 @@ public class Topic {
     @OneToMany(mappedBy = "topic")
     private List<Subscription> subscriptions;
 
+    /** Nombre d’abonnés, tenu à jour par lots (voir CounterService). */
+    @ColumnDefault("0")
+    @Column(name = "subscriber_count", nullable = false, updatable = false)
+    private long subscriberCount;
+
+    /** Identifiant du dernier post du topic, écrit par requête native (voir TopicRepository). */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ColumnDefault("0")
+    @Column(name = "last_post_id", nullable = false, insertable = false, updatable = false)
+    private int lastPostId;
+
+    /** Date de la dernière modification des posts du topic, écrite par requête native (voir TopicRepository). */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "content_updated_at", insertable = false, updatable = false)
+    private LocalDateTime contentUpdatedAt;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
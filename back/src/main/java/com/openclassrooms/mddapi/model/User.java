@@ -1,6 +1,10 @@
 package com.openclassrooms.mddapi.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
@@ -15,6 +19,9 @@ import java.util.List;
     @UniqueConstraint(columnNames = "email"),
     @UniqueConstraint(columnNames = "name")
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +34,7 @@ public class User {
     private Integer id;
 
     @NonNull
+    @NaturalId(mutable = true)
     @Size(max = 255)
     @Email
     private String email;
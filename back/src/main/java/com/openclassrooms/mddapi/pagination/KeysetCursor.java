@@ -0,0 +1,82 @@
+package com.openclassrooms.mddapi.pagination;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination par clé (keyset) sur le couple (created_at, id).
+ *
+ * <p>
+ * Le curseur désigne le dernier élément de la page précédente : la page suivante
+ * contient les éléments strictement plus anciens, ce qui correspond à un simple
+ * parcours d’intervalle sur l’index composite, quelle que soit la profondeur de page.
+ * </p>
+ *
+ * <p>
+ * Il est exposé au client sous une forme opaque (Base64 URL-safe).
+ * </p>
+ */
+@Getter
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Integer id;
+
+    public KeysetCursor(LocalDateTime createdAt, Integer id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Encode le curseur sous une forme opaque transmissible au client.
+     *
+     * @return curseur encodé
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client.
+     *
+     * @param value curseur encodé
+     * @return curseur décodé
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static KeysetCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException(Constants.INVALID_CURSOR);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(Constants.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Borne la taille de page demandée par le client.
+     *
+     * @param size taille demandée (peut être nulle)
+     * @return taille comprise entre 1 et {@link Constants#MAX_PAGE_SIZE}
+     */
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return Constants.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, Constants.MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,272 @@
+package com.openclassrooms.mddapi.repository;
+
+import com.openclassrooms.mddapi.dto.CommentRow;
+import com.openclassrooms.mddapi.dto.PostRow;
+import com.openclassrooms.mddapi.dto.SubscriptionRow;
+import com.openclassrooms.mddapi.dto.TopicRow;
+import com.openclassrooms.mddapi.dto.UserRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Écritures en masse : import de forums existants, génération de données de test.
+ *
+ * <p>
+ * Les entités utilisent des identifiants {@code IDENTITY}, qui empêchent Hibernate
+ * de regrouper les insertions : chaque {@code save} est un aller-retour. Ici, les
+ * lignes sont écrites en JDBC par instructions multi-lignes
+ * ({@code INSERT ... VALUES (...), (...)}, {@code mdd.import.rows-per-statement}
+ * lignes au plus), dont les clés générées sont relues dans l’ordre d’insertion.
+ * </p>
+ *
+ * <p>
+ * Les versions de contenu des topics ({@code topics.last_post_id},
+ * {@code topics.content_updated_at}, voir {@code EntityTagService}) sont mises à jour
+ * avec les lignes : les topics sont verrouillés avant l’insertion de leurs posts,
+ * dans l’ordre des identifiants, comme lors de la création d’un post.
+ * </p>
+ *
+ * <p>
+ * Les méthodes n’ouvrent pas de transaction : l’appelant les regroupe par lot.
+ * </p>
+ */
+@Repository
+public class BulkInsertRepository {
+
+    private static final String INSERT_USERS = "INSERT INTO users (email, name, password, created_at, updated_at) VALUES ";
+    private static final String USER_VALUES = "(?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TOPICS =
+            "INSERT INTO topics (title, description, subscriber_count, created_at, updated_at) VALUES ";
+    private static final String TOPIC_VALUES = "(?, ?, 0, ?, ?)";
+
+    private static final String INSERT_SUBSCRIPTIONS = "INSERT INTO subscription (user_id, topic_id) VALUES ";
+    private static final String SUBSCRIPTION_VALUES = "(?, ?)";
+
+    private static final String INSERT_POSTS =
+            "INSERT INTO posts (date, author_id, topic_id, title, content, comment_count, created_at, updated_at) VALUES ";
+    private static final String POST_VALUES = "(?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String INSERT_COMMENTS =
+            "INSERT INTO comments (date, author_id, posts_id, content, created_at, updated_at) VALUES ";
+    private static final String COMMENT_VALUES = "(?, ?, ?, ?, ?, ?)";
+
+    private static final String ADD_COMMENTS = "UPDATE posts SET comment_count = comment_count + ?, updated_at = ? WHERE id = ?";
+
+    private static final String TOUCH_CONTENT = "UPDATE topics SET content_updated_at = ? WHERE id = ?";
+    private static final String ADVANCE_LAST_POST = "UPDATE topics SET last_post_id = GREATEST(last_post_id, ?) WHERE id = ?";
+    private static final String TOUCH_CONTENT_OF_POSTS =
+            "UPDATE topics SET content_updated_at = ? WHERE id IN (SELECT topic_id FROM posts WHERE id IN (%s))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rowsPerStatement;
+
+    public BulkInsertRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${mdd.import.rows-per-statement:500}") int rowsPerStatement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    /**
+     * @return identifiants des utilisateurs, indexés par adresse e-mail
+     */
+    public Map<String, Integer> findUserIdsByEmail() {
+        Map<String, Integer> userIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users", (ResultSet rs) -> {
+            userIds.put(rs.getString(2), rs.getInt(1));
+        });
+        return userIds;
+    }
+
+    /**
+     * @return identifiants des topics, indexés par titre (le plus ancien en cas d’homonymes)
+     */
+    public Map<String, Integer> findTopicIdsByTitle() {
+        Map<String, Integer> topicIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, title FROM topics ORDER BY id", (ResultSet rs) -> {
+            topicIds.putIfAbsent(rs.getString(2), rs.getInt(1));
+        });
+        return topicIds;
+    }
+
+    /**
+     * @param users utilisateurs à insérer
+     * @return identifiants générés, dans l’ordre de {@code users}
+     */
+    public List<Integer> insertUsers(List<UserRow> users) {
+        return insert(INSERT_USERS, USER_VALUES, users, true, (statement, index, user) -> {
+            Timestamp createdAt = Timestamp.valueOf(user.getCreatedAt());
+            statement.setString(index++, user.getEmail());
+            statement.setString(index++, user.getName());
+            statement.setString(index++, user.getPassword());
+            statement.setTimestamp(index++, createdAt);
+            statement.setTimestamp(index++, createdAt);
+            return index;
+        });
+    }
+
+    /**
+     * Insère des topics, le compteur d’abonnés à zéro.
+     *
+     * @param topics topics à insérer
+     * @return identifiants générés, dans l’ordre de {@code topics}
+     */
+    public List<Integer> insertTopics(List<TopicRow> topics) {
+        return insert(INSERT_TOPICS, TOPIC_VALUES, topics, true, (statement, index, topic) -> {
+            Timestamp createdAt = Timestamp.valueOf(topic.getCreatedAt());
+            statement.setString(index++, topic.getTitle());
+            statement.setString(index++, topic.getDescription());
+            statement.setTimestamp(index++, createdAt);
+            statement.setTimestamp(index++, createdAt);
+            return index;
+        });
+    }
+
+    /**
+     * Insère des abonnements, sans mettre à jour les compteurs d’abonnés.
+     *
+     * @param subscriptions abonnements à insérer, sans doublon
+     */
+    public void insertSubscriptions(List<SubscriptionRow> subscriptions) {
+        insert(INSERT_SUBSCRIPTIONS, SUBSCRIPTION_VALUES, subscriptions, false, (statement, index, subscription) -> {
+            statement.setInt(index++, subscription.getUserId());
+            statement.setInt(index++, subscription.getTopicId());
+            return index;
+        });
+    }
+
+    /**
+     * Insère des posts, le compteur de commentaires à zéro, puis met à jour les versions
+     * de contenu de leurs topics.
+     *
+     * @param posts posts à insérer
+     * @return identifiants générés, dans l’ordre de {@code posts}
+     */
+    public List<Integer> insertPosts(List<PostRow> posts) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<Integer> topicIds = new TreeSet<>();
+        posts.forEach(post -> topicIds.add(post.getTopicId()));
+        jdbcTemplate.batchUpdate(TOUCH_CONTENT, topicIds.stream().map(topicId -> new Object[] {now, topicId}).toList());
+
+        List<Integer> ids = insert(INSERT_POSTS, POST_VALUES, posts, true, (statement, index, post) -> {
+            Timestamp date = Timestamp.valueOf(post.getDate());
+            statement.setTimestamp(index++, date);
+            statement.setInt(index++, post.getAuthorId());
+            statement.setInt(index++, post.getTopicId());
+            statement.setString(index++, post.getTitle());
+            statement.setString(index++, post.getContent());
+            statement.setTimestamp(index++, date);
+            statement.setTimestamp(index++, date);
+            return index;
+        });
+
+        Map<Integer, Integer> lastPostIds = new TreeMap<>();
+        for (int i = 0; i < posts.size(); i++) {
+            lastPostIds.merge(posts.get(i).getTopicId(), ids.get(i), Math::max);
+        }
+        List<Object[]> batch = new ArrayList<>(lastPostIds.size());
+        lastPostIds.forEach((topicId, postId) -> batch.add(new Object[] {postId, topicId}));
+        jdbcTemplate.batchUpdate(ADVANCE_LAST_POST, batch);
+        return ids;
+    }
+
+    /**
+     * Insère des commentaires, ajoute leur nombre aux compteurs des posts puis met à jour
+     * les versions de contenu de leurs topics.
+     *
+     * @param comments commentaires à insérer
+     */
+    public void insertComments(List<CommentRow> comments) {
+        insert(INSERT_COMMENTS, COMMENT_VALUES, comments, false, (statement, index, comment) -> {
+            Timestamp date = Timestamp.valueOf(comment.getDate());
+            statement.setTimestamp(index++, date);
+            statement.setInt(index++, comment.getAuthorId());
+            statement.setInt(index++, comment.getPostId());
+            statement.setString(index++, comment.getContent());
+            statement.setTimestamp(index++, date);
+            statement.setTimestamp(index++, date);
+            return index;
+        });
+
+        // Ordre des identifiants constant, comme pour les compteurs écrits en continu
+        Map<Integer, Long> counts = new TreeMap<>();
+        comments.forEach(comment -> counts.merge(comment.getPostId(), 1L, Long::sum));
+        List<Object[]> batch = new ArrayList<>(counts.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        counts.forEach((postId, count) -> batch.add(new Object[] {count, now, postId}));
+        jdbcTemplate.batchUpdate(ADD_COMMENTS, batch);
+
+        List<Integer> postIds = new ArrayList<>(counts.keySet());
+        for (int from = 0; from < postIds.size(); from += rowsPerStatement) {
+            List<Integer> slice = postIds.subList(from, Math.min(from + rowsPerStatement, postIds.size()));
+            List<Object> args = new ArrayList<>(slice.size() + 1);
+            args.add(now);
+            args.addAll(slice);
+            jdbcTemplate.update(TOUCH_CONTENT_OF_POSTS.formatted(String.join(", ", Collections.nCopies(slice.size(), "?"))),
+                    args.toArray());
+        }
+    }
+
+    /**
+     * @param returnKeys relire les clés générées (inutile pour les lignes jamais référencées ensuite)
+     * @return clés générées, vide si {@code returnKeys} est faux
+     */
+    private <T> List<Integer> insert(String insert, String values, List<T> rows, boolean returnKeys, RowBinder<T> binder) {
+        List<Integer> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            List<T> slice = rows.subList(from, Math.min(from + rowsPerStatement, rows.size()));
+            String sql = insert + String.join(", ", Collections.nCopies(slice.size(), values));
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql,
+                        returnKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS)) {
+                    int index = 1;
+                    for (T row : slice) {
+                        index = binder.bind(statement, index, row);
+                    }
+                    statement.executeUpdate();
+                    if (!returnKeys) {
+                        return null;
+                    }
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getInt(1));
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        if (returnKeys && ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated keys, got " + ids.size());
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+
+        /**
+         * Lie les paramètres d’une ligne à partir de la position {@code index}.
+         *
+         * @return position du premier paramètre de la ligne suivante
+         */
+        int bind(PreparedStatement statement, int index, T row) throws SQLException;
+    }
+}
@@ -1,10 +1,62 @@
 package com.openclassrooms.mddapi.repository;
 
+import com.openclassrooms.mddapi.dto.CommentDto;
+import com.openclassrooms.mddapi.dto.CommentSearchDocument;
 import com.openclassrooms.mddapi.model.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.CommentDto(c.id, c.date, c.content, a.name, c.post.id, c.createdAt)
+            FROM Comment c JOIN c.author a
+            WHERE c.post.id IN :postIds
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentDto> findDtosByPostIdIn(@Param("postIds") Collection<Integer> postIds);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.CommentDto(c.id, c.date, c.content, a.name, c.post.id, c.createdAt)
+            FROM Comment c JOIN c.author a
+            WHERE c.post.id = :postId
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentDto> findDtoPageByPostId(@Param("postId") Integer postId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.CommentDto(c.id, c.date, c.content, a.name, c.post.id, c.createdAt)
+            FROM Comment c JOIN c.author a
+            WHERE c.post.id = :postId
+              AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentDto> findDtoPageByPostIdAfter(@Param("postId") Integer postId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Integer id,
+                                              Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.CommentSearchDocument(c.id, c.post.id, p.topic.id, c.content)
+            FROM Comment c JOIN c.post p
+            WHERE c.id = :id
+            """)
+    Optional<CommentSearchDocument> findSearchDocumentById(@Param("id") Integer id);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.CommentSearchDocument(c.id, c.post.id, p.topic.id, c.content)
+            FROM Comment c JOIN c.post p
+            WHERE c.id > :afterId
+            ORDER BY c.id
+            """)
+    List<CommentSearchDocument> findSearchDocumentsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
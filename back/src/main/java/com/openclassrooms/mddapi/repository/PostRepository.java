@@ -1,14 +1,123 @@
 package com.openclassrooms.mddapi.repository;
 
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.PostDto;
+import com.openclassrooms.mddapi.dto.PostSummaryDto;
+import com.openclassrooms.mddapi.dto.SearchDocument;
+import com.openclassrooms.mddapi.dto.TimelineEntry;
 import com.openclassrooms.mddapi.model.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Integer> {
 
-    List<Post> findAllByTopicIdIn(List<Integer> topicIds);
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostDto(p.id, p.date, p.title, p.content, a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE p.id = :id
+            """)
+    Optional<PostDto> findDtoById(@Param("id") Integer id);
 
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE posts p SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.posts_id = p.id)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    int recountComments();
+
+    @Query("SELECT p.topic.id FROM Post p WHERE p.id = :id")
+    Optional<Integer> findTopicIdById(@Param("id") Integer id);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostDto(p.id, p.date, p.title, p.content, a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE p.id IN :ids
+            """)
+    List<PostDto> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostDto(p.id, p.date, p.title, p.content, a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE t.id IN :topicIds
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostDto> findFeedDtos(@Param("topicIds") Collection<Integer> topicIds);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostDto(p.id, p.date, p.title, p.content, a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE t.id IN :topicIds
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostDto> findFeedDtoPage(@Param("topicIds") Collection<Integer> topicIds, Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostDto(p.id, p.date, p.title, p.content, a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE t.id IN :topicIds
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostDto> findFeedDtoPageAfter(@Param("topicIds") Collection<Integer> topicIds,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Integer id,
+                                       Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.PostSummaryDto(p.id, p.date, p.title,
+                SUBSTRING(p.content, 1, """ + Constants.EXCERPT_LENGTH + """
+            ), a.name, t.title, p.createdAt, p.commentCount)
+            FROM Post p JOIN p.author a JOIN p.topic t
+            WHERE p.id IN :ids
+            """)
+    List<PostSummaryDto> findSummaryDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.TimelineEntry(p.id, p.topic.id, p.createdAt)
+            FROM Post p
+            WHERE p.topic.id = :topicId
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<TimelineEntry> findTimelineEntriesByTopicId(@Param("topicId") Integer topicId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.TimelineEntry(p.id, p.topic.id, p.createdAt)
+            FROM Post p
+            WHERE p.topic.id = :topicId
+              AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<TimelineEntry> findTimelineEntriesByTopicIdAfter(@Param("topicId") Integer topicId,
+                                                          @Param("createdAt") LocalDateTime createdAt,
+                                                          @Param("id") Integer id,
+                                                          Pageable pageable);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.SearchDocument(p.id, p.topic.id, p.title, p.content)
+            FROM Post p
+            WHERE p.id = :id
+            """)
+    Optional<SearchDocument> findSearchDocumentById(@Param("id") Integer id);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.SearchDocument(p.id, p.topic.id, p.title, p.content)
+            FROM Post p
+            WHERE p.id > :afterId
+            ORDER BY p.id
+            """)
+    List<SearchDocument> findSearchDocumentsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 }
@@ -1,13 +1,40 @@
 package com.openclassrooms.mddapi.repository;
 
 import com.openclassrooms.mddapi.model.Subscription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Integer> {
 
-    boolean existsByUserIdAndTopicId(Integer userId, Integer topicId);
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO subscription (user_id, topic_id)
+            SELECT :userId, t.id FROM topics t WHERE t.id IN :topicIds
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "subscription"))
+    int insertIgnore(@Param("userId") Integer userId, @Param("topicIds") Collection<Integer> topicIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Subscription s WHERE s.user.id = :userId AND s.topic.id IN :topicIds")
+    int deleteByUserIdAndTopicIdIn(@Param("userId") Integer userId, @Param("topicIds") Collection<Integer> topicIds);
+
+    @Query("SELECT s.topic.id FROM Subscription s WHERE s.user.id = :userId")
+    Set<Integer> findTopicIdsByUserId(@Param("userId") Integer userId);
 
-    void deleteByUserIdAndTopicId(Integer userId, Integer topicId);
+    @Query("SELECT s.user.id FROM Subscription s WHERE s.topic.id = :topicId")
+    List<Integer> findUserIdsByTopicId(@Param("topicId") Integer topicId);
 }
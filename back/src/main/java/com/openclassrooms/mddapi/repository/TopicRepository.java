@@ -1,10 +1,102 @@
 package com.openclassrooms.mddapi.repository;
 
+import com.openclassrooms.mddapi.dto.TopicCatalogVersion;
+import com.openclassrooms.mddapi.dto.TopicContentVersion;
 import com.openclassrooms.mddapi.model.Topic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Integer> {
 
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE topics t
+            SET subscriber_count = (SELECT COUNT(*) FROM subscription s WHERE s.topic_id = t.id),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE t.id IN :ids
+              AND t.subscriber_count <> (SELECT COUNT(*) FROM subscription s WHERE s.topic_id = t.id)
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topics"))
+    int recountSubscribers(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE topics t
+            SET subscriber_count = (SELECT COUNT(*) FROM subscription s WHERE s.topic_id = t.id),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE t.subscriber_count <> (SELECT COUNT(*) FROM subscription s WHERE s.topic_id = t.id)
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topics"))
+    int recountAllSubscribers();
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.TopicCatalogVersion(
+                COUNT(t), MAX(t.id), MAX(t.updatedAt), SUM(t.subscriberCount))
+            FROM Topic t
+            """)
+    TopicCatalogVersion findCatalogVersion();
+
+    // Colonnes de version : non lues via le cache de second niveau, dont la région n’est pas invalidée
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE topics SET content_updated_at = :now WHERE id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topic_versions"))
+    int touchContent(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE topics SET last_post_id = GREATEST(last_post_id, :postId) WHERE id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topic_versions"))
+    int advanceLastPost(@Param("id") Integer id, @Param("postId") Integer postId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE topics SET content_updated_at = :now
+            WHERE id IN (SELECT p.topic_id FROM posts p WHERE p.id IN :postIds)
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topic_versions"))
+    int touchContentOfPosts(@Param("postIds") Collection<Integer> postIds, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE topics SET content_updated_at = :now
+            WHERE id IN (SELECT p.topic_id FROM posts p WHERE p.author_id = :userId)
+               OR id IN (SELECT p.topic_id FROM posts p JOIN comments c ON c.posts_id = p.id WHERE c.author_id = :userId)
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topic_versions"))
+    int touchContentByParticipant(@Param("userId") Integer userId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE topics t
+            SET last_post_id = COALESCE((SELECT MAX(p.id) FROM posts p WHERE p.topic_id = t.id), 0),
+                content_updated_at = :now
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "topic_versions"))
+    int recountContentVersions(@Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new com.openclassrooms.mddapi.dto.TopicContentVersion(t.id, t.lastPostId, t.contentUpdatedAt)
+            FROM Topic t
+            WHERE t.id IN :ids
+            """)
+    List<TopicContentVersion> findContentVersionsByIdIn(@Param("ids") Collection<Integer> ids);
 }
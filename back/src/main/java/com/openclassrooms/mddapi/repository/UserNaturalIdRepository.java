@@ -0,0 +1,21 @@
+package com.openclassrooms.mddapi.repository;
+
+import com.openclassrooms.mddapi.model.User;
+
+import java.util.Optional;
+
+/**
+ * Accès aux utilisateurs par identifiant naturel (email), via le cache de second niveau.
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Charge un utilisateur par email : l’identifiant est résolu par le cache des
+     * identifiants naturels, puis l’entité par le cache des utilisateurs ; la base
+     * n’est interrogée qu’en cas d’absence.
+     *
+     * @param email email de l’utilisateur
+     * @return utilisateur correspondant, s’il existe
+     */
+    Optional<User> findByNaturalEmail(String email);
+}
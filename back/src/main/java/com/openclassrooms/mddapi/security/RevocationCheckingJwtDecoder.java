@@ -0,0 +1,36 @@
+package com.openclassrooms.mddapi.security;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.service.TokenRevocationService;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Décorateur de {@link JwtDecoder} rejetant les tokens révoqués.
+ *
+ * <p>
+ * Placé devant le cache des tokens vérifiés, il est consulté à chaque requête ;
+ * la vérification est faite en mémoire, sans accès à la base.
+ * </p>
+ */
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final TokenRevocationService tokenRevocationService;
+
+    public RevocationCheckingJwtDecoder(JwtDecoder delegate, TokenRevocationService tokenRevocationService) {
+        this.delegate = delegate;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (tokenRevocationService.isRevoked(jwt)) {
+            throw new BadJwtException(Constants.TOKEN_REVOKED);
+        }
+        return jwt;
+    }
+}
@@ -1,30 +1,30 @@
 package com.openclassrooms.mddapi.service;
 
 import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
 import com.openclassrooms.mddapi.dto.LoginRequest;
 import com.openclassrooms.mddapi.dto.RegisterRequest;
 import com.openclassrooms.mddapi.dto.TopicDto;
 import com.openclassrooms.mddapi.dto.UserResponse;
 import com.openclassrooms.mddapi.model.User;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Service métier responsable de l’authentification et de la gestion
@@ -37,6 +37,7 @@ import java.util.Objects;
  *     <li>L’inscription et la connexion</li>
  *     <li>La récupération du profil utilisateur</li>
  *     <li>La mise à jour du compte</li>
+ *     <li>La déconnexion (révocation du token)</li>
  * </ul>
  * </p>
  *
@@ -45,36 +46,53 @@ import java.util.Objects;
  * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class AuthService {
 
     private final JwtEncoder jwtEncoder;
     private final UserService userService;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final TopicService topicService;
+    private final CurrentUserService currentUserService;
+    private final TokenRevocationService tokenRevocationService;
+    private final EntityTagService entityTagService;
+    private final FeedEventHub feedEventHub;
 
     /**
      * Constructeur avec injection des dépendances.
      */
-    public AuthService(JwtEncoder jwtEncoder, UserService userService, BCryptPasswordEncoder passwordEncoder, TopicService topicService) {
+    public AuthService(JwtEncoder jwtEncoder, UserService userService, PasswordHashingService passwordHashingService, TopicService topicService, CurrentUserService currentUserService, TokenRevocationService tokenRevocationService, EntityTagService entityTagService, FeedEventHub feedEventHub) {
         this.jwtEncoder = jwtEncoder;
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.topicService = topicService;
+        this.currentUserService = currentUserService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.entityTagService = entityTagService;
+        this.feedEventHub = feedEventHub;
     }
 
     /**
      * Génère un JWT pour l’utilisateur authentifié.
      *
-     * @param authentication contexte d’authentification
+     * <p>
+     * Le token porte l’email en sujet et l’identifiant de l’utilisateur, qui suffit
+     * aux requêtes suivantes pour l’identifier ; le profil (email, nom) est lu en base
+     * et mis en cache par {@link CurrentUserService}.
+     * </p>
+     *
+     * @param user utilisateur authentifié
      * @return token JWT signé
      */
-    public String generateToken(Authentication authentication) {
+    public String generateToken(User user) {
         Instant now = Instant.now();
         JwtClaimsSet claims = JwtClaimsSet.builder()
                 .issuer("self")
                 .issuedAt(now)
-                .expiresAt(now.plus(1, ChronoUnit.DAYS))
-                .subject(authentication.getName())
+                .expiresAt(now.plus(Constants.TOKEN_VALIDITY))
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(Constants.USER_ID_CLAIM, user.getId())
                 .build();
         JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims);
         return this.jwtEncoder.encode(jwtEncoderParameters).getTokenValue();
@@ -93,23 +111,12 @@ public class AuthService {
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setCreatedAt(LocalDateTime.now());
 
         userService.createOrUpdateUser(user);
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
-
-        Authentication authentication = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-        );
-        return generateToken(authentication);
+        return generateToken(user);
     }
 
     /**
@@ -121,26 +128,14 @@ public class AuthService {
     public String login(LoginRequest request) {
         User user = userService.getByEmailOrName(request.getIdentifier());
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(user.getId(), request.getPassword(), user.getPassword())) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     Constants.INVALID_CREDENTIALS
             );
         }
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
-
-        Authentication authentication = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-        );
-
-        return generateToken(authentication);
+        return generateToken(user);
     }
 
     /**
@@ -149,15 +144,12 @@ public class AuthService {
      * @param authentication contexte d’authentification courant
      * @return données utilisateur enrichies (topics inclus)
      */
+    @ReplicaRead
     public UserResponse me(Authentication authentication) {
 
-        User user = userService.getByEmail(authentication.getName());
+        AuthenticatedUser user = currentUserService.resolve(authentication);
 
-        List<Integer> topicIds = user.getSubscriptions().stream()
-                .map(sub -> sub.getTopic().getId())
-                .toList();
-
-        List<TopicDto> topicDtos = topicService.getByIdAndUserId(topicIds, user.getId());
+        List<TopicDto> topicDtos = topicService.getSubscribedTopics(user.getId());
 
         UserResponse userResponse = new UserResponse(user);
         userResponse.setTopics(topicDtos);
@@ -165,41 +157,72 @@ public class AuthService {
         return userResponse;
     }
 
+    /**
+     * Retourne l’ETag du profil de l’utilisateur authentifié, calculé à partir de son
+     * identité, de ses abonnements et de l’empreinte du catalogue.
+     *
+     * @param authentication contexte d’authentification courant
+     * @return ETag du profil
+     */
+    public String meTag(Authentication authentication) {
+        return entityTagService.profileTag(currentUserService.resolve(authentication));
+    }
+
     /**
      * Met à jour les informations du compte utilisateur et génère un nouveau JWT.
      *
+     * <p>
+     * Le profil mis en cache pour l’utilisateur est rafraîchi afin que les tokens
+     * émis précédemment ne réexposent pas l’ancien email ou nom. Ces tokens sont
+     * par ailleurs révoqués : seul le token retourné reste valide.
+     * </p>
+     *
      * @param request nouvelles données utilisateur
      * @param authentication utilisateur authentifié
      * @return nouveau token JWT
      */
     public String update(RegisterRequest request, Authentication authentication) {
-        User user = userService.getByEmail(authentication.getName());
+        User user = userService.getById(currentUserService.resolve(authentication).getId());
 
         if (!Objects.equals(request.getEmail(), user.getEmail())) {
             userService.checkEmailNotUsed(request.getEmail());
         }
-        if (!Objects.equals(request.getName(), user.getName())) {
+        boolean renamed = !Objects.equals(request.getName(), user.getName());
+        if (renamed) {
             userService.checkNameNotUsed(request.getName());
         }
 
         user.setName(request.getName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         userService.createOrUpdateUser(user);
+        currentUserService.refresh(user);
+        if (renamed) {
+            entityTagService.onProfileChanged(user.getId());
+        }
+        revokeCurrentToken(authentication);
+        tokenRevocationService.revokeAllIssuedBefore(user.getId());
+        feedEventHub.onTokensRevoked(user.getId());
+
+        return generateToken(user);
+    }
+
+    /**
+     * Déconnecte l’utilisateur en révoquant le token présenté, et ferme les flux
+     * d’événements ouverts avec lui.
+     *
+     * @param authentication utilisateur authentifié
+     */
+    public void logout(Authentication authentication) {
+        revokeCurrentToken(authentication);
+        feedEventHub.onTokensRevoked(currentUserService.resolve(authentication).getId());
+    }
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
-
-         authentication = new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities()
-        );
-        return generateToken(authentication);
+    private void revokeCurrentToken(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            tokenRevocationService.revoke(jwtAuthentication.getToken());
+        }
     }
 
 }
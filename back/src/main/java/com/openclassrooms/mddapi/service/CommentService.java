@@ -1,14 +1,22 @@
 package com.openclassrooms.mddapi.service;
 
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
 import com.openclassrooms.mddapi.dto.CommentDto;
 import com.openclassrooms.mddapi.dto.CommentRequest;
 import com.openclassrooms.mddapi.dto.CommentsResponse;
+import com.openclassrooms.mddapi.dto.FeedEvent;
 import com.openclassrooms.mddapi.mapper.CommentMapper;
 import com.openclassrooms.mddapi.model.Comment;
 import com.openclassrooms.mddapi.model.Post;
 import com.openclassrooms.mddapi.model.User;
+import com.openclassrooms.mddapi.pagination.KeysetCursor;
 import com.openclassrooms.mddapi.repository.CommentRepository;
 import com.openclassrooms.mddapi.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -24,25 +32,35 @@ import java.util.List;
  * <ul>
  *     <li>La création d’un commentaire</li>
  *     <li>La récupération des commentaires triés par date</li>
+ *     <li>La récupération paginée des commentaires d’un post</li>
  * </ul>
  * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class CommentService {
 
     private final CommentMapper commentMapper;
     private final UserService userService;
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
+    private final CurrentUserService currentUserService;
+    private final SearchService searchService;
+    private final FeedEventHub feedEventHub;
+    private final CounterService counterService;
 
     /**
      * Constructeur avec injection des dépendances.
      */
-    public CommentService(CommentMapper commentMapper, UserService userService, PostRepository postRepository, CommentRepository commentRepository) {
+    public CommentService(CommentMapper commentMapper, UserService userService, PostRepository postRepository, CommentRepository commentRepository, CurrentUserService currentUserService, SearchService searchService, FeedEventHub feedEventHub, CounterService counterService) {
         this.commentMapper = commentMapper;
         this.userService = userService;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
+        this.currentUserService = currentUserService;
+        this.searchService = searchService;
+        this.feedEventHub = feedEventHub;
+        this.counterService = counterService;
     }
 
     /**
@@ -52,8 +70,8 @@ public class CommentService {
      * @param authentication utilisateur actuellement authentifié
      */
     public void create(CommentRequest request, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
+        AuthenticatedUser author = currentUserService.resolve(authentication);
+        User user = userService.getReferenceById(author.getId());
 
         Post post = postRepository.getReferenceById(request.getPostId());
 
@@ -65,6 +83,11 @@ public class CommentService {
         comment.setCreatedAt(LocalDateTime.now());
 
         commentRepository.save(comment);
+        searchService.indexComment(comment.getId());
+        counterService.onCommentCreated(request.getPostId());
+        postRepository.findTopicIdById(request.getPostId()).ifPresent(topicId ->
+                feedEventHub.publish(new FeedEvent(Constants.COMMENT_CREATED_EVENT, request.getPostId(), comment.getId(),
+                        topicId, null, author.getName(), comment.getDate())));
     }
 
     /**
@@ -72,6 +95,7 @@ public class CommentService {
      *
      * @return objet {@link CommentsResponse} contenant les commentaires
      */
+    @ReplicaRead
     public CommentsResponse getAll() {
         List<Comment> comments = commentRepository.findAll(
                 Sort.by(Sort.Direction.DESC, "createdAt")
@@ -83,4 +107,42 @@ public class CommentService {
         return commentsResponse;
     }
 
+    /**
+     * Retourne une page des commentaires d’un post, du plus récent au plus ancien.
+     *
+     * <p>
+     * Pagination par clé sur (posts_id, created_at, id) : chaque page correspond à
+     * un parcours borné de l’index composite, quel que soit le nombre de commentaires.
+     * </p>
+     *
+     * @param postId identifiant du post
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     * @param size taille de page demandée, plafonnée à {@link Constants#MAX_PAGE_SIZE}
+     * @return {@link CommentsResponse} contenant la page et le curseur suivant
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    @ReplicaRead
+    public CommentsResponse getPage(Integer postId, String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<CommentDto> commentDtos;
+        if (cursor == null) {
+            commentDtos = commentRepository.findDtoPageByPostId(postId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            commentDtos = commentRepository.findDtoPageByPostIdAfter(postId, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        CommentsResponse commentsResponse = new CommentsResponse();
+        if (commentDtos.size() > pageSize) {
+            commentDtos = commentDtos.subList(0, pageSize);
+            CommentDto last = commentDtos.get(pageSize - 1);
+            commentsResponse.setNextCursor(new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        commentsResponse.setComments(commentDtos);
+
+        return commentsResponse;
+    }
+
 }
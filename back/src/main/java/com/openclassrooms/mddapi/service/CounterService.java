@@ -0,0 +1,199 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service métier responsable des compteurs dénormalisés : nombre de commentaires
+ * des posts ({@code posts.comment_count}) et nombre d’abonnés des topics
+ * ({@code topics.subscriber_count}).
+ *
+ * <p>
+ * Les écritures ne touchent pas la base : chaque commentaire incrémente le delta
+ * en mémoire de son post, un {@link LongAdder} dont les cellules réparties évitent
+ * de sérialiser les commentaires concurrents d’un même post. Chaque période
+ * ({@code mdd.counters.flush-interval}), la table des deltas est remplacée par une
+ * table vide, puis appliquée en un seul lot JDBC dans une transaction, soit une mise
+ * à jour de ligne par post et par période au lieu d’une par commentaire. Les
+ * incréments sont faits sous le verrou partagé d’un {@link ReadWriteLock}, le
+ * remplacement sous son verrou exclusif : une fois la table retirée, plus aucun
+ * incrément ne peut s’y ajouter et ses sommes sont définitives, aucun n’est perdu.
+ * Si le lot échoue, il est annulé en entier et ses deltas sont réintégrés pour la
+ * période suivante, sans double comptage.
+ * </p>
+ *
+ * <p>
+ * Les abonnements par lot ({@code INSERT IGNORE}) ne permettent pas d’attribuer
+ * les lignes insérées à chaque topic : les topics concernés sont marqués, puis
+ * leur nombre d’abonnés est recalculé exactement lors de la même période, par
+ * une requête ensembliste sur l’index unique (user_id, topic_id).
+ * </p>
+ *
+ * <p>
+ * Les compteurs exposés sont ceux de la base : ils ont au plus une période de
+ * retard. Le lot des commentaires met aussi à jour, dans sa transaction, la version
+ * de contenu des topics concernés ({@code topics.content_updated_at}), dont dépend
+ * l’ETag du fil ({@link EntityTagService}).
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class CounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterService.class);
+
+    private static final String ADD_COMMENTS = "UPDATE posts SET comment_count = comment_count + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final TopicRepository topicRepository;
+    private final TopicCatalog topicCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock commentCountersLock = new ReentrantReadWriteLock();
+    private Map<Integer, LongAdder> commentCounters = new ConcurrentHashMap<>();
+    private final Set<Integer> dirtyTopicIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public CounterService(JdbcTemplate jdbcTemplate,
+                          PostRepository postRepository,
+                          TopicRepository topicRepository,
+                          TopicCatalog topicCatalog,
+                          PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepository = postRepository;
+        this.topicRepository = topicRepository;
+        this.topicCatalog = topicCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Comptabilise un nouveau commentaire.
+     *
+     * @param postId identifiant du post commenté
+     */
+    public void onCommentCreated(Integer postId) {
+        addComments(postId, 1);
+    }
+
+    /**
+     * Signale une modification des abonnés de topics.
+     *
+     * @param topicIds identifiants des topics
+     */
+    public void onSubscriptionsChanged(Iterable<Integer> topicIds) {
+        topicIds.forEach(dirtyTopicIds::add);
+    }
+
+    /**
+     * Écrit en base les compteurs accumulés depuis la dernière période.
+     */
+    @Scheduled(fixedDelayString = "${mdd.counters.flush-interval:PT5S}")
+    public synchronized void flush() {
+        flushComments();
+        flushSubscribers();
+    }
+
+    /**
+     * Recalcule tous les compteurs et les versions de contenu des topics depuis les
+     * tables de référence (initialisation des colonnes, correction après un arrêt brutal).
+     */
+    public synchronized void recountAll() {
+        flush();
+        logger.info("Recounted comments of {} posts; subscribers of {} topics corrected",
+                postRepository.recountComments(), topicRepository.recountAllSubscribers());
+        logger.info("Recounted content versions of {} topics", topicRepository.recountContentVersions(LocalDateTime.now()));
+        topicCatalog.refresh();
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    private void addComments(Integer postId, long count) {
+        commentCountersLock.readLock().lock();
+        try {
+            commentCounters.computeIfAbsent(postId, id -> new LongAdder()).add(count);
+        } finally {
+            commentCountersLock.readLock().unlock();
+        }
+    }
+
+    private void flushComments() {
+        Map<Integer, LongAdder> retired;
+        commentCountersLock.writeLock().lock();
+        try {
+            if (commentCounters.isEmpty()) {
+                return;
+            }
+            retired = commentCounters;
+            commentCounters = new ConcurrentHashMap<>();
+        } finally {
+            commentCountersLock.writeLock().unlock();
+        }
+
+        // Ordre des identifiants constant : deux lots concurrents ne peuvent pas s’interbloquer
+        Map<Integer, Long> deltas = new TreeMap<>();
+        retired.forEach((postId, delta) -> deltas.put(postId, delta.sum()));
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        deltas.forEach((postId, delta) -> batch.add(new Object[] {delta, timestamp, postId}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(ADD_COMMENTS, batch);
+                topicRepository.touchContentOfPosts(deltas.keySet(), now);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Comment counters flush failed, {} posts retried at next flush", deltas.size(), e);
+            deltas.forEach(this::addComments);
+        }
+    }
+
+    private void flushSubscribers() {
+        if (dirtyTopicIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> topicIds = new HashSet<>();
+        for (Integer topicId : dirtyTopicIds) {
+            if (dirtyTopicIds.remove(topicId)) {
+                topicIds.add(topicId);
+            }
+        }
+        try {
+            topicRepository.recountSubscribers(topicIds);
+        } catch (DataAccessException e) {
+            logger.warn("Subscriber counters flush failed, {} topics retried at next flush", topicIds.size(), e);
+            dirtyTopicIds.addAll(topicIds);
+            return;
+        }
+        topicCatalog.refresh();
+    }
+}
@@ -0,0 +1,102 @@
+package com.openclassrooms.mddapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRouting;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.model.User;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Service métier responsable de l’identification de l’utilisateur authentifié.
+ *
+ * <p>
+ * L’identifiant de l’utilisateur est porté par le JWT (claim {@value Constants#USER_ID_CLAIM}) ;
+ * un cache LRU borné, indexé par identifiant, conserve son profil : la résolution de
+ * l’appelant ne nécessite donc aucun accès à la base tant que le profil est en cache.
+ * </p>
+ *
+ * <p>
+ * Le cache est alimenté depuis la base, jamais depuis les claims du token présenté :
+ * un token émis avant une modification du compte, encore valide, ne peut pas y
+ * réintroduire l’ancien email ou nom après l’expiration de l’entrée. Il est en outre
+ * rafraîchi explicitement lors d’une mise à jour du compte.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class CurrentUserService {
+
+    private final UserService userService;
+    private final Cache<Integer, AuthenticatedUser> principals;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public CurrentUserService(UserService userService,
+                              @Value("${mdd.principal.cache.max-size:10000}") long maxSize,
+                              @Value("${mdd.principal.cache.ttl:PT15M}") Duration ttl) {
+        this.userService = userService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Retourne l’utilisateur authentifié.
+     *
+     * <p>
+     * Les tokens émis avant l’ajout du claim {@value Constants#USER_ID_CLAIM}
+     * sont résolus par email en base.
+     * </p>
+     *
+     * @param authentication contexte d’authentification courant
+     * @return {@link AuthenticatedUser} correspondant
+     * @throws RuntimeException si l’utilisateur n’existe pas
+     */
+    public AuthenticatedUser resolve(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            Jwt jwt = jwtAuthentication.getToken();
+            Number userId = jwt.getClaim(Constants.USER_ID_CLAIM);
+            if (userId != null) {
+                return principal(userId.intValue());
+            }
+        }
+        AuthenticatedUser user = new AuthenticatedUser(
+                ReplicaRouting.onPrimary(() -> userService.getByEmail(authentication.getName())));
+        principals.put(user.getId(), user);
+        return user;
+    }
+
+    /**
+     * Lit le profil en cache, ou le charge depuis la base hors du verrou du cache.
+     * Un profil rafraîchi pendant le chargement l’emporte sur le profil chargé.
+     */
+    private AuthenticatedUser principal(Integer userId) {
+        AuthenticatedUser cached = principals.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        AuthenticatedUser loaded = new AuthenticatedUser(ReplicaRouting.onPrimary(() -> userService.getById(userId)));
+        AuthenticatedUser existing = principals.asMap().putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Remplace le profil en cache après une mise à jour du compte.
+     *
+     * @param user utilisateur mis à jour
+     */
+    public void refresh(User user) {
+        principals.put(user.getId(), new AuthenticatedUser(user));
+    }
+}
@@ -0,0 +1,360 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.CommentRow;
+import com.openclassrooms.mddapi.dto.PostRow;
+import com.openclassrooms.mddapi.dto.SubscriptionRow;
+import com.openclassrooms.mddapi.dto.TopicRow;
+import com.openclassrooms.mddapi.dto.UserRow;
+import com.openclassrooms.mddapi.generator.ZipfDistribution;
+import com.openclassrooms.mddapi.repository.BulkInsertRepository;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Service de génération de données synthétiques pour les tests de performance.
+ *
+ * <p>
+ * Crée des utilisateurs, des topics, un graphe d’abonnements, des posts et des
+ * commentaires, en volumes configurables ({@code mdd.generator.*}). Les données
+ * ne dépendent que de la graine ({@code mdd.generator.seed}) : chaque étape tire
+ * dans son propre {@link SplittableRandom}, dérivé de la graine, de sorte que
+ * changer le volume d’une étape ne modifie pas les précédentes. Seul le sel du
+ * mot de passe haché, commun à tous les utilisateurs, varie d’une exécution à l’autre.
+ * </p>
+ *
+ * <p>
+ * Les popularités suivent des lois de Zipf d’exposant {@code mdd.generator.skew} :
+ * quelques topics concentrent abonnés et posts, quelques utilisateurs écrivent
+ * l’essentiel des contenus, quelques posts reçoivent l’essentiel des commentaires.
+ * Les longueurs respectent les contraintes des entités (titre ≤ 100, contenu d’un
+ * post ≤ 2500, d’un commentaire ≤ 1000).
+ * </p>
+ *
+ * <p>
+ * Les lignes sont écrites par {@link BulkInsertRepository}, par transactions de
+ * {@code mdd.generator.chunk-size} lignes. La base doit être vide de données
+ * générées avec la même graine (adresses e-mail et noms uniques).
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class DataGeneratorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorService.class);
+
+    private static final String[] WORDS = {
+            "java", "spring", "angular", "typescript", "base", "données", "requête", "index", "cache", "latence",
+            "débit", "serveur", "client", "réseau", "thread", "mémoire", "test", "charge", "déploiement", "conteneur",
+            "service", "API", "sécurité", "jeton", "session", "transaction", "verrou", "file", "message", "événement",
+            "flux", "lot", "performance", "profilage", "optimisation", "algorithme", "structure", "tableau", "liste",
+            "arbre", "graphe", "recherche", "tri", "compilation", "module", "dépendance", "version", "migration",
+            "schéma", "colonne", "clé", "pagination", "curseur", "abonnement", "fil", "commentaire", "question",
+            "réponse", "problème", "solution", "exemple", "retour", "expérience", "projet", "équipe", "code"
+    };
+
+    private static final int TITLE_MAX_LENGTH = 100;
+    private static final int POST_CONTENT_MAX_LENGTH = 2500;
+    private static final int COMMENT_MAX_LENGTH = 1000;
+    private static final int TOPIC_DESCRIPTION_MAX_LENGTH = 2000;
+    private static final long COMMENT_DELAY_MEAN_SECONDS = Duration.ofHours(12).toSeconds();
+
+    private final BulkInsertRepository bulkInsertRepository;
+    private final TopicRepository topicRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final long seed;
+    private final int userCount;
+    private final int topicCount;
+    private final int subscriptionsPerUser;
+    private final int postCount;
+    private final int commentCount;
+    private final double skew;
+    private final LocalDateTime start;
+    private final Duration period;
+    private final String password;
+    private final int chunkSize;
+
+    /**
+     * Constructeur avec injection des dépendances et des volumes à générer.
+     */
+    public DataGeneratorService(BulkInsertRepository bulkInsertRepository,
+                                TopicRepository topicRepository,
+                                PlatformTransactionManager transactionManager,
+                                BCryptPasswordEncoder passwordEncoder,
+                                @Value("${mdd.generator.seed:42}") long seed,
+                                @Value("${mdd.generator.users:1000}") int userCount,
+                                @Value("${mdd.generator.topics:50}") int topicCount,
+                                @Value("${mdd.generator.subscriptions-per-user:5}") int subscriptionsPerUser,
+                                @Value("${mdd.generator.posts:20000}") int postCount,
+                                @Value("${mdd.generator.comments:100000}") int commentCount,
+                                @Value("${mdd.generator.skew:1.1}") double skew,
+                                @Value("${mdd.generator.start:2024-01-01T00:00:00}") LocalDateTime start,
+                                @Value("${mdd.generator.period:P365D}") Duration period,
+                                @Value("${mdd.generator.password:Passw0rd!}") String password,
+                                @Value("${mdd.generator.chunk-size:10000}") int chunkSize) {
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.topicRepository = topicRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.seed = seed;
+        this.userCount = userCount;
+        this.topicCount = topicCount;
+        this.subscriptionsPerUser = subscriptionsPerUser;
+        this.postCount = postCount;
+        this.commentCount = commentCount;
+        this.skew = skew;
+        this.start = start;
+        this.period = period;
+        this.password = password;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Génère l’ensemble du jeu de données.
+     *
+     * @return nombre total de lignes écrites
+     * @throws IllegalArgumentException si un volume est incohérent
+     */
+    public long generate() {
+        if (userCount <= 0 || topicCount <= 0 || postCount < 0 || commentCount < 0 || subscriptionsPerUser < 0) {
+            throw new IllegalArgumentException("Generator needs at least one user and one topic, and non-negative volumes");
+        }
+        if (commentCount > 0 && postCount == 0) {
+            throw new IllegalArgumentException("Generator cannot create comments without posts");
+        }
+        // Un générateur par étape, dérivés dans un ordre fixe
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom userRandom = root.split();
+        SplittableRandom topicRandom = root.split();
+        SplittableRandom subscriptionRandom = root.split();
+        SplittableRandom postRandom = root.split();
+        SplittableRandom commentRandom = root.split();
+
+        long begin = System.currentTimeMillis();
+        int[] userIds = generateUsers(userRandom);
+        int[] topicIds = generateTopics(topicRandom);
+        long subscriptions = generateSubscriptions(subscriptionRandom, userIds, topicIds);
+        Posts posts = generatePosts(postRandom, userIds, topicIds);
+        generateComments(commentRandom, userIds, posts);
+
+        long total = userIds.length + topicIds.length + subscriptions + posts.ids.length + commentCount;
+        logger.info("Generated {} rows (seed {}) in {} ms", total, seed, System.currentTimeMillis() - begin);
+        return total;
+    }
+
+    private int[] generateUsers(SplittableRandom random) {
+        String hash = passwordEncoder.encode(password);
+        long periodSeconds = period.toSeconds();
+        return write("users", userCount, index -> new UserRow(
+                "user" + index + "@seed" + seed + ".mdd.test",
+                "user-" + seed + "-" + index,
+                hash,
+                start.plusSeconds(random.nextLong(periodSeconds + 1) / 2)), bulkInsertRepository::insertUsers);
+    }
+
+    private int[] generateTopics(SplittableRandom random) {
+        return write("topics", topicCount, index -> new TopicRow(
+                text(random, "Topic " + (index + 1) + " :", 2, 4, TITLE_MAX_LENGTH),
+                text(random, "", 10, 60, TOPIC_DESCRIPTION_MAX_LENGTH),
+                start), bulkInsertRepository::insertTopics);
+    }
+
+    /**
+     * Chaque utilisateur s’abonne à un nombre de topics de loi géométrique
+     * (moyenne {@code subscriptions-per-user}), choisis selon leur popularité.
+     */
+    private long generateSubscriptions(SplittableRandom random, int[] userIds, int[] topicIds) {
+        if (subscriptionsPerUser == 0) {
+            return 0;
+        }
+        long phaseStart = System.currentTimeMillis();
+        ZipfDistribution topicPopularity = new ZipfDistribution(topicIds.length, skew);
+        long written = 0;
+        List<SubscriptionRow> chunk = new ArrayList<>(chunkSize);
+        Set<Integer> userTopics = new HashSet<>();
+        for (int userId : userIds) {
+            int wanted = Math.min(topicIds.length, geometric(random, subscriptionsPerUser));
+            userTopics.clear();
+            // Tirages bornés : avec une forte concentration, les topics rares sont rarement atteints
+            for (int attempt = 0; userTopics.size() < wanted && attempt < wanted * 20; attempt++) {
+                userTopics.add(topicIds[topicPopularity.sample(random)]);
+            }
+            for (Integer topicId : userTopics.stream().sorted().toList()) {
+                chunk.add(new SubscriptionRow(userId, topicId));
+            }
+            if (chunk.size() >= chunkSize) {
+                written += flushSubscriptions(chunk);
+            }
+        }
+        written += flushSubscriptions(chunk);
+        topicRepository.recountAllSubscribers();
+        logPhase("subscriptions", written, phaseStart);
+        return written;
+    }
+
+    private int flushSubscriptions(List<SubscriptionRow> chunk) {
+        int size = chunk.size();
+        if (size > 0) {
+            transactionTemplate.executeWithoutResult(status -> bulkInsertRepository.insertSubscriptions(chunk));
+            chunk.clear();
+        }
+        return size;
+    }
+
+    /**
+     * Posts répartis régulièrement sur la période, auteurs et topics tirés selon
+     * leur popularité.
+     */
+    private Posts generatePosts(SplittableRandom random, int[] userIds, int[] topicIds) {
+        ZipfDistribution authors = new ZipfDistribution(userIds.length, skew);
+        ZipfDistribution topics = new ZipfDistribution(topicIds.length, skew);
+        long periodSeconds = period.toSeconds();
+        long[] epochSeconds = new long[postCount];
+        int[] ids = write("posts", postCount, index -> {
+            long offset = periodSeconds * index / Math.max(postCount, 1) + random.nextLong(60);
+            LocalDateTime date = start.plusSeconds(offset);
+            epochSeconds[index] = date.toEpochSecond(ZoneOffset.UTC);
+            return new PostRow(userIds[authors.sample(random)], topicIds[topics.sample(random)], date,
+                    text(random, "", 3, 10, TITLE_MAX_LENGTH),
+                    text(random, "", 20, 400, POST_CONTENT_MAX_LENGTH));
+        }, bulkInsertRepository::insertPosts);
+        return new Posts(ids, epochSeconds);
+    }
+
+    /**
+     * Commentaires répartis selon la popularité des posts ; les posts les plus
+     * commentés sont dispersés sur la période par une permutation des rangs.
+     */
+    private void generateComments(SplittableRandom random, int[] userIds, Posts posts) {
+        if (commentCount == 0) {
+            return;
+        }
+        ZipfDistribution authors = new ZipfDistribution(userIds.length, skew);
+        ZipfDistribution popularity = new ZipfDistribution(posts.ids.length, skew);
+        int[] postByRank = permutation(random, posts.ids.length);
+        write("comments", commentCount, index -> {
+            int post = postByRank[popularity.sample(random)];
+            long delay = (long) (-Math.log(1 - random.nextDouble()) * COMMENT_DELAY_MEAN_SECONDS);
+            LocalDateTime date = LocalDateTime.ofEpochSecond(posts.epochSeconds[post] + delay, 0, ZoneOffset.UTC);
+            return new CommentRow(userIds[authors.sample(random)], posts.ids[post], date,
+                    text(random, "", 3, 60, COMMENT_MAX_LENGTH));
+        }, rows -> {
+            bulkInsertRepository.insertComments(rows);
+            return null;
+        });
+    }
+
+    /**
+     * Génère {@code count} lignes par lots, chaque lot dans sa propre transaction.
+     *
+     * @return identifiants générés, dans l’ordre des lignes (vide si l’insertion n’en renvoie pas)
+     */
+    private <T> int[] write(String phase, int count, IntFunction<T> row,
+                            Function<List<T>, List<Integer>> insert) {
+        long phaseStart = System.currentTimeMillis();
+        int[] ids = null;
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, count));
+        for (int from = 0; from < count; from += chunkSize) {
+            int to = Math.min(from + chunkSize, count);
+            chunk.clear();
+            for (int index = from; index < to; index++) {
+                chunk.add(row.apply(index));
+            }
+            List<Integer> chunkIds = transactionTemplate.execute(status -> insert.apply(chunk));
+            if (chunkIds != null) {
+                if (ids == null) {
+                    ids = new int[count];
+                }
+                for (int i = 0; i < chunkIds.size(); i++) {
+                    ids[from + i] = chunkIds.get(i);
+                }
+            }
+        }
+        logPhase(phase, count, phaseStart);
+        return ids != null ? ids : new int[0];
+    }
+
+    private void logPhase(String phase, long rows, long phaseStart) {
+        long duration = System.currentTimeMillis() - phaseStart;
+        logger.info("Generated {} {} in {} ms ({} rows/s)", rows, phase, duration, rows * 1000 / Math.max(duration, 1));
+    }
+
+    /**
+     * Texte de {@code minWords} à {@code maxWords} mots, tronqué à {@code maxLength} caractères.
+     */
+    private static String text(SplittableRandom random, String prefix, int minWords, int maxWords, int maxLength) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder builder = new StringBuilder(prefix);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (builder.length() + word.length() + 1 > maxLength) {
+                break;
+            }
+            if (!builder.isEmpty()) {
+                builder.append(' ');
+            }
+            builder.append(word);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Tirage de loi géométrique sur {@code 1..} de moyenne {@code mean}.
+     */
+    private static int geometric(SplittableRandom random, double mean) {
+        if (mean <= 1) {
+            return 1;
+        }
+        double p = 1 / mean;
+        return 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    /**
+     * Permutation aléatoire de {@code 0..size-1} (Fisher-Yates).
+     */
+    private static int[] permutation(SplittableRandom random, int size) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Posts générés : identifiants et dates (secondes epoch UTC), par index de génération.
+     */
+    private static final class Posts {
+
+        private final int[] ids;
+        private final long[] epochSeconds;
+
+        private Posts(int[] ids, long[] epochSeconds) {
+            this.ids = ids;
+            this.epochSeconds = epochSeconds;
+        }
+    }
+}
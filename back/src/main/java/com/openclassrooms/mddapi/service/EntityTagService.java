@@ -0,0 +1,183 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.FeedVersion;
+import com.openclassrooms.mddapi.dto.TopicCatalogVersion;
+import com.openclassrooms.mddapi.dto.TopicContentVersion;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service métier responsable du calcul des ETags des endpoints de lecture.
+ *
+ * <p>
+ * Les ETags sont dérivés de l’état de la base par des lectures peu coûteuses,
+ * de sorte qu’un ETag peut être comparé à l’en-tête {@code If-None-Match} sans
+ * construire la réponse, et que toutes les instances calculent le même ETag :
+ * <ul>
+ *     <li>Fil : pour chaque topic abonné, sa version de contenu
+ *     ({@code topics.last_post_id}, {@code topics.content_updated_at}), lue par clé primaire</li>
+ *     <li>Liste des topics : empreinte du catalogue ({@link TopicCatalog}) et topics abonnés</li>
+ *     <li>Profil : identité de l’utilisateur, empreinte du catalogue et topics abonnés</li>
+ * </ul>
+ * Le coût d’un 304 sur le fil ne dépend donc que du nombre de topics abonnés, pas du
+ * nombre de leurs posts. La version lue pour l’ETag du fil ({@link FeedVersion}) sert
+ * ensuite au rattrapage de la timeline ({@link TimelineService}).
+ * </p>
+ *
+ * <p>
+ * Toute écriture qui modifie le fil d’un topic met à jour sa version, dans sa propre
+ * transaction : création d’un post ({@link #beforePostCreated(Integer)},
+ * {@link #onPostCreated(Integer, Integer)}), compteur de commentaires
+ * ({@link CounterService}, donc avec au plus une période de retard sur le commentaire),
+ * renommage d’un auteur ({@link #onProfileChanged(Integer)}) et écritures en masse
+ * ({@code BulkInsertRepository}). Les dates sont posées par l’application : les
+ * horloges des instances sont supposées synchronisées.
+ * </p>
+ *
+ * <p>
+ * L’ETag est lu avant le corps de la réponse et dans la même portée de routage : il ne
+ * décrit jamais un état plus récent que le corps, même lu sur un réplica en retard.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class EntityTagService {
+
+    private final TopicRepository topicRepository;
+    private final SubscriptionService subscriptionService;
+    private final TopicCatalog topicCatalog;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public EntityTagService(TopicRepository topicRepository, SubscriptionService subscriptionService, TopicCatalog topicCatalog) {
+        this.topicRepository = topicRepository;
+        this.subscriptionService = subscriptionService;
+        this.topicCatalog = topicCatalog;
+    }
+
+    /**
+     * Marque le contenu d’un topic comme modifié avant l’insertion d’un post, dans la
+     * même transaction.
+     *
+     * <p>
+     * La ligne du topic est ainsi verrouillée avant que l’insertion n’y pose le verrou
+     * partagé de la clé étrangère : deux créations concurrentes dans un même topic
+     * s’attendent au lieu de s’interbloquer.
+     * </p>
+     *
+     * @param topicId identifiant du topic
+     */
+    public void beforePostCreated(Integer topicId) {
+        topicRepository.touchContent(topicId, LocalDateTime.now());
+    }
+
+    /**
+     * Enregistre le dernier post d’un topic, dans la transaction de son insertion.
+     *
+     * @param topicId identifiant du topic
+     * @param postId identifiant du post inséré
+     */
+    public void onPostCreated(Integer topicId, Integer postId) {
+        topicRepository.advanceLastPost(topicId, postId);
+    }
+
+    /**
+     * Signale la modification du nom d’un utilisateur, affiché comme auteur dans
+     * les posts et commentaires : les topics concernés sont marqués comme modifiés.
+     *
+     * @param userId identifiant de l’utilisateur
+     */
+    public void onProfileChanged(Integer userId) {
+        topicRepository.touchContentByParticipant(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Version du fil d’un utilisateur et son ETag.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @return topics abonnés, dernier post de chacun et ETag fort
+     */
+    public FeedVersion feedVersion(Integer userId) {
+        Set<Integer> subscribedTopicIds = subscriptionService.getSubscribedTopicIds(userId);
+        Map<Integer, Integer> lastPostIds = new HashMap<>();
+        StringBuilder state = new StringBuilder("feed");
+        if (!subscribedTopicIds.isEmpty()) {
+            List<TopicContentVersion> versions = topicRepository.findContentVersionsByIdIn(subscribedTopicIds);
+            for (Integer topicId : subscribedTopicIds.stream().sorted().toList()) {
+                state.append('|').append(topicId);
+            }
+            versions.stream()
+                    .sorted(Comparator.comparing(TopicContentVersion::getTopicId))
+                    .forEach(version -> {
+                        lastPostIds.put(version.getTopicId(), version.getLastPostId());
+                        state.append('|').append(version.getTopicId())
+                                .append(':').append(version.getLastPostId())
+                                .append(':').append(micros(version.getContentUpdatedAt()));
+                    });
+        }
+        return new FeedVersion(userId, subscribedTopicIds, lastPostIds, tag(state));
+    }
+
+    /**
+     * ETag de la liste des topics, marqués selon les abonnements d’un utilisateur.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @return ETag fort
+     */
+    public String topicsTag(Integer userId) {
+        return tag(catalogState(new StringBuilder("topics"), userId));
+    }
+
+    /**
+     * ETag du profil d’un utilisateur (identité et topics abonnés).
+     *
+     * @param user utilisateur, tel que servi dans la réponse
+     * @return ETag fort
+     */
+    public String profileTag(AuthenticatedUser user) {
+        StringBuilder state = new StringBuilder("profile|")
+                .append(user.getEmail()).append('|').append(user.getName());
+        return tag(catalogState(state, user.getId()));
+    }
+
+    private StringBuilder catalogState(StringBuilder state, Integer userId) {
+        TopicCatalogVersion catalogVersion = topicCatalog.snapshot().getDbVersion();
+        if (catalogVersion != null) {
+            state.append('|').append(catalogVersion);
+        }
+        subscriptionService.getSubscribedTopicIds(userId).stream().sorted()
+                .forEach(topicId -> state.append('|').append(topicId));
+        return state;
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return 0;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static String tag(CharSequence state) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.openclassrooms.mddapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.FeedEvent;
+import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service de diffusion en direct des événements du fil (Server-Sent Events).
+ *
+ * <p>
+ * Chaque connexion reçoit les événements {@value Constants#POST_CREATED_EVENT} et
+ * {@value Constants#COMMENT_CREATED_EVENT} des topics auxquels son utilisateur est abonné.
+ * </p>
+ *
+ * <p>
+ * {@code EventSource} ne permettant pas d’envoyer d’en-tête, la connexion est ouverte avec
+ * un ticket plutôt qu’avec le JWT : obtenu avec le JWT ({@link #issueTicket(Authentication)}),
+ * il n’est valable qu’une fois et pendant {@code mdd.events.ticket-ttl}, auprès de l’instance
+ * qui l’a émis. La connexion reste liée au JWT : elle est fermée lorsque celui-ci est révoqué
+ * ou expire.
+ * </p>
+ *
+ * <p>
+ * La publication ne bloque jamais l’auteur de l’événement :
+ * <ul>
+ *     <li>L’événement est sérialisé une seule fois, puis déposé dans la file bornée
+ *     ({@code mdd.events.buffer-size}) de chaque connexion concernée</li>
+ *     <li>Chaque file est vidée vers le client par un pool dédié et borné
+ *     ({@code mdd.events.threads} threads, {@code mdd.events.queue-capacity} vidages en attente)</li>
+ *     <li>Une connexion dont la file est pleine (client trop lent), dont le vidage ne trouve
+ *     pas de place dans le pool, ou dont un envoi dure plus de {@code mdd.events.write-timeout},
+ *     est fermée ; le client se reconnecte et relit son fil</li>
+ * </ul>
+ * Un commentaire SSE est envoyé toutes les {@code mdd.events.heartbeat-interval} afin
+ * que les connexions inactives ne soient pas coupées par les proxys, et que les
+ * connexions rompues soient détectées.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class FeedEventHub {
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final CurrentUserService currentUserService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration writeTimeout;
+    private final Cache<String, Ticket> tickets;
+    private final SecureRandom random = new SecureRandom();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter evictions;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public FeedEventHub(SubscriptionRepository subscriptionRepository,
+                        CurrentUserService currentUserService,
+                        TokenRevocationService tokenRevocationService,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${mdd.events.buffer-size:64}") int bufferSize,
+                        @Value("${mdd.events.timeout:PT30M}") Duration timeout,
+                        @Value("${mdd.events.threads:8}") int threads,
+                        @Value("${mdd.events.queue-capacity:1024}") int queueCapacity,
+                        @Value("${mdd.events.write-timeout:PT10S}") Duration writeTimeout,
+                        @Value("${mdd.events.ticket-ttl:PT30S}") Duration ticketTtl) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.currentUserService = currentUserService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.writeTimeout = writeTimeout;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(Constants.MAX_EVENT_TICKETS)
+                .expireAfterWrite(ticketTtl)
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feed-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "feed-events", Tags.empty()).bindTo(meterRegistry);
+        this.evictions = meterRegistry.counter("mdd.events.evictions");
+        meterRegistry.gaugeCollectionSize("mdd.events.connections", Tags.empty(), connections);
+    }
+
+    /**
+     * Émet un ticket d’ouverture du flux d’événements pour l’utilisateur authentifié.
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @return ticket opaque, à usage unique
+     */
+    public String issueTicket(Authentication authentication) {
+        Integer userId = currentUserService.resolve(authentication).getId();
+        Jwt jwt = authentication instanceof JwtAuthenticationToken jwtAuthentication ? jwtAuthentication.getToken() : null;
+        byte[] bytes = new byte[Constants.EVENT_TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(userId, jwt));
+        return ticket;
+    }
+
+    /**
+     * Ouvre une connexion avec un ticket, qui est consommé.
+     *
+     * @param ticket ticket émis par {@link #issueTicket(Authentication)}
+     * @return émetteur SSE de la connexion
+     * @throws ResponseStatusException 401 si le ticket est inconnu, expiré, déjà utilisé,
+     * ou si le JWT qui l’a obtenu a depuis été révoqué
+     */
+    public SseEmitter connect(String ticket) {
+        Ticket redeemed = ticket == null ? null : tickets.asMap().remove(ticket);
+        if (redeemed == null || isRevoked(redeemed.jwt)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, Constants.INVALID_EVENT_TICKET);
+        }
+        Integer userId = redeemed.userId;
+        Set<Integer> topicIds = ConcurrentHashMap.newKeySet();
+        topicIds.addAll(subscriptionRepository.findTopicIdsByUserId(userId));
+
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Connection connection = new Connection(userId, redeemed.jwt, topicIds, emitter);
+        emitter.onCompletion(() -> connections.remove(connection));
+        emitter.onTimeout(() -> connections.remove(connection));
+        emitter.onError(error -> connections.remove(connection));
+        connections.add(connection);
+        connection.offer(SseEmitter.event().comment(Constants.HEARTBEAT));
+        return emitter;
+    }
+
+    /**
+     * Diffuse un événement aux connexions abonnées à son topic.
+     *
+     * @param event événement à diffuser
+     */
+    public void publish(FeedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String id = Long.toString(sequence.incrementAndGet());
+        for (Connection connection : connections) {
+            if (connection.topicIds.contains(event.getTopicId())) {
+                connection.offer(SseEmitter.event().id(id).name(event.getType()).data(data));
+            }
+        }
+    }
+
+    /**
+     * Ajoute des topics aux connexions ouvertes d’un utilisateur qui vient de s’y abonner.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @param topicIds identifiants des topics
+     */
+    public void onSubscribe(Integer userId, Collection<Integer> topicIds) {
+        for (Connection connection : connections) {
+            if (connection.userId.equals(userId)) {
+                connection.topicIds.addAll(topicIds);
+            }
+        }
+    }
+
+    /**
+     * Retire des topics des connexions ouvertes d’un utilisateur qui s’en est désabonné.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @param topicIds identifiants des topics
+     */
+    public void onUnsubscribe(Integer userId, Collection<Integer> topicIds) {
+        for (Connection connection : connections) {
+            if (connection.userId.equals(userId)) {
+                connection.topicIds.removeAll(topicIds);
+            }
+        }
+    }
+
+    /**
+     * Ferme les connexions d’un utilisateur dont le JWT vient d’être révoqué.
+     *
+     * @param userId identifiant de l’utilisateur
+     */
+    public void onTokensRevoked(Integer userId) {
+        for (Connection connection : connections) {
+            if (connection.userId.equals(userId) && isRevoked(connection.jwt)) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Envoie un commentaire SSE à toutes les connexions ouvertes, après avoir fermé
+     * celles dont le JWT a expiré ou a été révoqué, y compris par une autre instance.
+     */
+    @Scheduled(fixedDelayString = "${mdd.events.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        for (Connection connection : connections) {
+            if (isRevoked(connection.jwt)) {
+                connection.close();
+            } else {
+                connection.offer(SseEmitter.event().comment(Constants.HEARTBEAT));
+            }
+        }
+    }
+
+    /**
+     * Ferme les connexions dont un envoi est bloqué depuis plus de
+     * {@code mdd.events.write-timeout}, et interrompt le thread qui l’effectue.
+     */
+    @Scheduled(fixedDelayString = "${mdd.events.write-timeout:PT10S}")
+    public void expireStalledWrites() {
+        long now = System.nanoTime();
+        for (Connection connection : connections) {
+            connection.expireStalledSend(now);
+        }
+    }
+
+    /**
+     * Crée l’émetteur d’une connexion.
+     *
+     * @param timeoutMillis durée de vie de la connexion
+     * @return émetteur SSE
+     */
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private boolean isRevoked(Jwt jwt) {
+        return jwt != null && (tokenRevocationService.isRevoked(jwt)
+                || jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(Instant.now()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ticket d’ouverture : utilisateur et JWT qui l’a obtenu ({@code null} hors JWT).
+     */
+    private record Ticket(Integer userId, Jwt jwt) {
+    }
+
+    /**
+     * Connexion SSE d’un utilisateur et sa file d’envoi bornée.
+     *
+     * <p>
+     * Un seul vidage de la file est en cours à la fois, ce qui préserve l’ordre des
+     * événements et évite les écritures concurrentes sur la réponse.
+     * </p>
+     */
+    private final class Connection {
+
+        private final Integer userId;
+        private final Jwt jwt;
+        private final Set<Integer> topicIds;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private Thread sender;
+        private long sendStartedAt;
+
+        private Connection(Integer userId, Jwt jwt, Set<Integer> topicIds, SseEmitter emitter) {
+            this.userId = userId;
+            this.jwt = jwt;
+            this.topicIds = topicIds;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    evict();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    beginSend();
+                    try {
+                        emitter.send(event);
+                    } finally {
+                        endSend();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+                Thread.interrupted();
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized void beginSend() {
+            sendStartedAt = System.nanoTime();
+            sender = Thread.currentThread();
+        }
+
+        private synchronized void endSend() {
+            sender = null;
+        }
+
+        /**
+         * Ferme la connexion et interrompt l’envoi en cours s’il dure depuis plus de
+         * {@code mdd.events.write-timeout}. Synchronisé avec {@link #endSend()} : un thread
+         * rendu au pool n’est jamais interrompu.
+         */
+        private synchronized void expireStalledSend(long now) {
+            if (sender != null && now - sendStartedAt > writeTimeout.toNanos()) {
+                evict();
+                sender.interrupt();
+            }
+        }
+
+        private void evict() {
+            if (close()) {
+                evictions.increment();
+            }
+        }
+
+        /**
+         * Ferme la connexion. La réponse est terminée sur le pool : un envoi
+         * bloqué vers un client lent ne doit pas bloquer l’émetteur de l’événement.
+         * Pool saturé, elle se termine au délai de la connexion.
+         */
+        private boolean close() {
+            boolean open = connections.remove(this);
+            queue.clear();
+            if (open) {
+                try {
+                    executor.execute(emitter::complete);
+                } catch (RejectedExecutionException e) {
+                    // Terminée par le délai mdd.events.timeout
+                }
+            }
+            return open;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.openclassrooms.mddapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.CommentRow;
+import com.openclassrooms.mddapi.dto.ImportRecord;
+import com.openclassrooms.mddapi.dto.ImportReport;
+import com.openclassrooms.mddapi.dto.ImportedComment;
+import com.openclassrooms.mddapi.dto.ImportedPost;
+import com.openclassrooms.mddapi.dto.PostRow;
+import com.openclassrooms.mddapi.repository.BulkInsertRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service métier responsable de l’import en masse de posts et de commentaires
+ * (migration de forums existants).
+ *
+ * <p>
+ * Le fichier NDJSON est lu ligne à ligne, par lots de {@code mdd.import.chunk-size}
+ * lignes. Chaque lot est écrit dans sa propre transaction, par insertions
+ * multi-lignes ({@link BulkInsertRepository}) : un lot en échec est annulé et
+ * signalé sans interrompre l’import.
+ * </p>
+ *
+ * <p>
+ * Auteurs (par adresse e-mail) et topics (par titre) sont résolus dans des tables
+ * chargées une fois en mémoire ; les commentaires référencent leur post par la
+ * référence source ({@code ref}) d’un post importé plus haut dans le fichier.
+ * Les lignes invalides sont rejetées individuellement, avec leur numéro.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    private final BulkInsertRepository bulkInsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader recordReader;
+    private final Validator validator;
+    private final int chunkSize;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public ImportService(BulkInsertRepository bulkInsertRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         @Value("${mdd.import.chunk-size:1000}") int chunkSize) {
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordReader = objectMapper.readerFor(ImportRecord.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importe un fichier NDJSON de posts et de commentaires.
+     *
+     * @param file fichier à importer, encodé en UTF-8
+     * @return bilan de l’import
+     * @throws IOException si le fichier ne peut pas être lu
+     */
+    public ImportReport importFile(Path file) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        Lookups lookups = new Lookups(bulkInsertRepository.findUserIdsByEmail(), bulkInsertRepository.findTopicIdsByTitle());
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            int chunkNumber = 0;
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(++chunkNumber, chunk, lookups, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(++chunkNumber, chunk, lookups, report);
+            }
+        }
+
+        report.setDurationMillis(System.currentTimeMillis() - start);
+        logger.info("Import finished: {} posts, {} comments, {} rejected lines, {} failed chunks in {} ms ({} records/s)",
+                report.getPosts(), report.getComments(), report.getRejectedLines(), report.getFailedChunks(),
+                report.getDurationMillis(), report.getRecordsPerSecond());
+        return report;
+    }
+
+    private void writeChunk(int chunkNumber, List<Line> lines, Lookups lookups, ImportReport report) {
+        long start = System.currentTimeMillis();
+        Chunk chunk = new Chunk();
+        for (Line line : lines) {
+            parse(line, lookups, chunk);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(chunk, lookups));
+        } catch (DataAccessException | TransactionException | IllegalStateException e) {
+            report.setFailedChunks(report.getFailedChunks() + 1);
+            report.setRejectedLines(report.getRejectedLines() + lines.size());
+            logger.warn("Chunk {} (lines {}-{}) rolled back: {}", chunkNumber,
+                    lines.get(0).number, lines.get(lines.size() - 1).number, e.getMessage());
+            return;
+        }
+
+        lookups.postIds.putAll(chunk.postIds);
+        chunk.errors.forEach((lineNumber, error) -> logger.warn("Line {} rejected: {}", lineNumber, error));
+        report.setPosts(report.getPosts() + chunk.posts.size());
+        report.setComments(report.getComments() + chunk.comments.size());
+        report.setRejectedLines(report.getRejectedLines() + chunk.errors.size());
+
+        long duration = System.currentTimeMillis() - start;
+        logger.info("Chunk {} (lines {}-{}): {} posts, {} comments, {} rejected in {} ms ({} records/s)", chunkNumber,
+                lines.get(0).number, lines.get(lines.size() - 1).number, chunk.posts.size(), chunk.comments.size(),
+                chunk.errors.size(), duration, (chunk.posts.size() + chunk.comments.size()) * 1000L / Math.max(duration, 1));
+    }
+
+    /**
+     * Lit, valide et résout une ligne ; les commentaires dont le post est dans le
+     * même lot ne sont résolus qu’après l’insertion des posts.
+     */
+    private void parse(Line line, Lookups lookups, Chunk chunk) {
+        ImportRecord record;
+        try {
+            record = recordReader.readValue(line.text);
+        } catch (JsonProcessingException e) {
+            chunk.errors.put(line.number, Constants.INVALID_IMPORT_LINE + e.getOriginalMessage());
+            return;
+        }
+        if (record == null) {
+            chunk.errors.put(line.number, Constants.INVALID_IMPORT_LINE + line.text);
+            return;
+        }
+        Set<ConstraintViolation<ImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            chunk.errors.put(line.number, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return;
+        }
+        Integer authorId = lookups.userIds.get(record.getAuthor());
+        if (authorId == null) {
+            chunk.errors.put(line.number, Constants.UNKNOWN_IMPORT_AUTHOR + record.getAuthor());
+            return;
+        }
+
+        if (record instanceof ImportedPost post) {
+            Integer topicId = lookups.topicIds.get(post.getTopic());
+            if (topicId == null) {
+                chunk.errors.put(line.number, Constants.UNKNOWN_IMPORT_TOPIC + post.getTopic());
+            } else if (lookups.postIds.containsKey(post.getRef()) || !chunk.refs.add(post.getRef())) {
+                chunk.errors.put(line.number, Constants.DUPLICATE_IMPORT_REF + post.getRef());
+            } else {
+                chunk.posts.add(new PostRow(authorId, topicId, post.getDate(), post.getTitle(), post.getContent()));
+                chunk.postRefs.add(post.getRef());
+            }
+        } else if (record instanceof ImportedComment comment) {
+            chunk.pendingComments.add(new PendingComment(line.number, authorId, comment));
+        }
+    }
+
+    private void write(Chunk chunk, Lookups lookups) {
+        if (!chunk.posts.isEmpty()) {
+            List<Integer> ids = bulkInsertRepository.insertPosts(chunk.posts);
+            for (int i = 0; i < ids.size(); i++) {
+                chunk.postIds.put(chunk.postRefs.get(i), ids.get(i));
+            }
+        }
+
+        for (PendingComment pending : chunk.pendingComments) {
+            String ref = pending.comment.getPost();
+            Integer postId = chunk.postIds.getOrDefault(ref, lookups.postIds.get(ref));
+            if (postId == null) {
+                chunk.errors.put(pending.lineNumber, Constants.UNKNOWN_IMPORT_POST + ref);
+            } else {
+                chunk.comments.add(new CommentRow(pending.authorId, postId, pending.comment.getDate(), pending.comment.getContent()));
+            }
+        }
+        if (!chunk.comments.isEmpty()) {
+            bulkInsertRepository.insertComments(chunk.comments);
+        }
+    }
+
+    /**
+     * Tables de résolution partagées par tous les lots de l’import.
+     */
+    private static final class Lookups {
+
+        private final Map<String, Integer> userIds;
+        private final Map<String, Integer> topicIds;
+        /** Posts importés par les lots validés, indexés par référence source. */
+        private final Map<String, Integer> postIds = new HashMap<>();
+
+        private Lookups(Map<String, Integer> userIds, Map<String, Integer> topicIds) {
+            this.userIds = userIds;
+            this.topicIds = topicIds;
+        }
+    }
+
+    /**
+     * Lignes d’un lot, résolues, et rejets associés.
+     */
+    private static final class Chunk {
+
+        private final List<PostRow> posts = new ArrayList<>();
+        private final List<String> postRefs = new ArrayList<>();
+        private final Set<String> refs = new HashSet<>();
+        private final Map<String, Integer> postIds = new HashMap<>();
+        private final List<PendingComment> pendingComments = new ArrayList<>();
+        private final List<CommentRow> comments = new ArrayList<>();
+        private final Map<Long, String> errors = new TreeMap<>();
+    }
+
+    private static final class Line {
+
+        private final long number;
+        private final String text;
+
+        private Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class PendingComment {
+
+        private final long lineNumber;
+        private final Integer authorId;
+        private final ImportedComment comment;
+
+        private PendingComment(long lineNumber, Integer authorId, ImportedComment comment) {
+            this.lineNumber = lineNumber;
+            this.authorId = authorId;
+            this.comment = comment;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service technique responsable du hachage des mots de passe.
+ *
+ * <p>
+ * Les calculs BCrypt sont exécutés par un pool de threads dédié et borné,
+ * afin qu’un afflux de connexions ne mobilise pas les threads de requête
+ * au détriment du reste de l’API :
+ * <ul>
+ *     <li>{@code mdd.password.threads} threads de calcul (0 : un par cœur)</li>
+ *     <li>Une file d’attente de {@code mdd.password.queue-capacity} demandes</li>
+ *     <li>Au-delà, ou après {@code mdd.password.timeout} d’attente, réponse 503 immédiate</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Le coût BCrypt est configurable ({@code mdd.password.bcrypt-strength}) : un hash
+ * stocké avec un autre coût est recalculé de façon transparente à la connexion suivante.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final int strength;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public PasswordHashingService(BCryptPasswordEncoder passwordEncoder,
+                                  UserService userService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${mdd.password.bcrypt-strength:10}") int strength,
+                                  @Value("${mdd.password.threads:0}") int threads,
+                                  @Value("${mdd.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${mdd.password.timeout:PT5S}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+        this.strength = strength;
+        this.timeout = timeout;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Hache un mot de passe.
+     *
+     * @param rawPassword mot de passe en clair
+     * @return hash BCrypt
+     * @throws ResponseStatusException 503 si le pool de hachage est saturé
+     */
+    public String encode(String rawPassword) {
+        return await(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Vérifie un mot de passe et, s’il est correct, recalcule en arrière-plan
+     * un hash dont le coût diffère du coût configuré.
+     *
+     * @param userId identifiant du propriétaire du hash
+     * @param rawPassword mot de passe en clair
+     * @param encodedPassword hash stocké
+     * @return {@code true} si le mot de passe correspond
+     * @throws ResponseStatusException 503 si le pool de hachage est saturé
+     */
+    public boolean matches(Integer userId, String rawPassword, String encodedPassword) {
+        boolean matches = await(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        if (matches && needsRehash(encodedPassword)) {
+            rehash(userId, rawPassword, encodedPassword);
+        }
+        return matches;
+    }
+
+    /**
+     * Indique si le coût d’un hash diffère du coût configuré.
+     *
+     * @param encodedPassword hash BCrypt ({@code $2a$10$...})
+     * @return {@code true} si le hash doit être recalculé
+     */
+    boolean needsRehash(String encodedPassword) {
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recalcule le hash sans faire attendre la connexion. La mise à jour est
+     * abandonnée si le pool est saturé : elle sera retentée à la connexion suivante.
+     */
+    private void rehash(Integer userId, String rawPassword, String encodedPassword) {
+        try {
+            executor.execute(() -> {
+                userService.replacePasswordHash(userId, encodedPassword, passwordEncoder.encode(rawPassword));
+                logger.debug("Password hash of user {} migrated to cost {}", userId, strength);
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Password rehash of user {} postponed: hashing pool saturated", userId);
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw unavailable();
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw unavailable();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ResponseStatusException unavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, Constants.AUTHENTICATION_BUSY);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,21 +1,41 @@
 package com.openclassrooms.mddapi.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
 import com.openclassrooms.mddapi.dto.*;
-import com.openclassrooms.mddapi.mapper.PostMapper;
 import com.openclassrooms.mddapi.model.Post;
-import com.openclassrooms.mddapi.model.Subscription;
 import com.openclassrooms.mddapi.model.Topic;
 import com.openclassrooms.mddapi.model.User;
+import com.openclassrooms.mddapi.pagination.KeysetCursor;
+import com.openclassrooms.mddapi.repository.CommentRepository;
 import com.openclassrooms.mddapi.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service métier responsable de la gestion des publications (posts).
@@ -25,37 +45,68 @@ import java.util.Optional;
  * <ul>
  *     <li>La création d’un post associé à un utilisateur et à un topic</li>
  *     <li>La récupération de tous les posts</li>
+ *     <li>La récupération paginée du fil d’actualité, complet ou résumé</li>
  *     <li>La récupération d’un post spécifique par son identifiant</li>
  * </ul>
  * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class PostService {
 
     private final TopicService topicService;
-    private final PostMapper postMapper;
     private final UserService userService;
     private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final TimelineService timelineService;
+    private final SubscriptionService subscriptionService;
+    private final CurrentUserService currentUserService;
+    private final CommentService commentService;
+    private final SearchService searchService;
+    private final EntityTagService entityTagService;
+    private final ObjectMapper objectMapper;
+    private final FeedEventHub feedEventHub;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore streamPermits;
 
     /**
      * Constructeur avec injection des dépendances.
      */
-    public PostService(TopicService topicService, PostMapper postMapper, UserService userService, PostRepository postRepository) {
+    public PostService(TopicService topicService, UserService userService, PostRepository postRepository, CommentRepository commentRepository, TimelineService timelineService, SubscriptionService subscriptionService, CurrentUserService currentUserService, CommentService commentService, SearchService searchService, EntityTagService entityTagService, ObjectMapper objectMapper, FeedEventHub feedEventHub,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${mdd.stream.max-concurrent:16}") int maxConcurrentStreams) {
         this.topicService = topicService;
-        this.postMapper = postMapper;
         this.userService = userService;
         this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.timelineService = timelineService;
+        this.subscriptionService = subscriptionService;
+        this.currentUserService = currentUserService;
+        this.commentService = commentService;
+        this.searchService = searchService;
+        this.entityTagService = entityTagService;
+        this.objectMapper = objectMapper;
+        this.feedEventHub = feedEventHub;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.streamPermits = new Semaphore(maxConcurrentStreams);
     }
 
     /**
      * Crée un nouveau post pour l’utilisateur authentifié et le topic spécifié.
      *
+     * <p>
+     * Le post et la version de contenu de son topic sont écrits dans la même transaction.
+     * </p>
+     *
      * @param request données du post
      * @param authentication utilisateur actuellement authentifié
      */
     public void create(PostRequest request, Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
+        AuthenticatedUser author = currentUserService.resolve(authentication);
+        User user = userService.getReferenceById(author.getId());
 
         Topic topic = topicService.getById(request.getTopicId());
 
@@ -67,49 +118,313 @@ public class PostService {
         post.setDate(LocalDateTime.now());
         post.setCreatedAt(LocalDateTime.now());
 
-        postRepository.save(post);
+        transactionTemplate.executeWithoutResult(status -> {
+            entityTagService.beforePostCreated(topic.getId());
+            postRepository.save(post);
+            entityTagService.onPostCreated(topic.getId(), post.getId());
+        });
+        timelineService.onPostCreated(post);
+        searchService.index(post.getId());
+        feedEventHub.publish(new FeedEvent(Constants.POST_CREATED_EVENT, post.getId(), null, topic.getId(),
+                post.getTitle(), author.getName(), post.getDate()));
     }
 
     /**
-     * Retourne tous les posts lié aux thèmes abonnés.
+     * Retourne la version du fil de l’utilisateur authentifié et son ETag.
+     *
+     * <p>
+     * Ne lit que les abonnements de l’utilisateur et la version de leurs topics :
+     * le fil lui-même n’est construit que si l’ETag diffère de celui détenu par le client,
+     * à partir de la même version.
+     * </p>
      *
      * @param authentication utilisateur actuellement authentifié
+     * @return version du fil ; son ETag vaut pour toutes ses représentations (complète, paginée, résumée)
+     */
+    public FeedVersion feedVersion(Authentication authentication) {
+        return entityTagService.feedVersion(currentUserService.resolve(authentication).getId());
+    }
+
+    /**
+     * Retourne tous les posts lié aux thèmes abonnés.
+     *
+     * <p>
+     * Le fil est lu depuis la timeline matérialisée de l’utilisateur lorsqu’elle
+     * couvre tout l’historique, sinon depuis la base. Les posts et leurs commentaires
+     * sont lus par projection, en un nombre constant de requêtes.
+     * </p>
+     *
+     * @param feed version du fil de l’utilisateur ({@link #feedVersion(Authentication)})
      * @return {@link PostsResponse} contenant la liste des posts
      */
-    public PostsResponse getAll(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
-
-        List<Integer> subscribedTopicIds = Optional.ofNullable(user.getSubscriptions())
-                        .orElse(Collections.emptyList())
-                        .stream()
-                        .map(Subscription::getTopic)
-                        .filter(Objects::nonNull)
-                        .map(Topic::getId)
-                        .filter(Objects::nonNull)
-                        .toList();
-
-        List<Post> posts = postRepository.findAllByTopicIdIn(subscribedTopicIds);
-        List<PostDto> postDtos = postMapper.postListToPostDtoList(posts);
+    @ReplicaRead
+    public PostsResponse getAll(FeedVersion feed) {
+        List<Integer> timeline = timelineService.readAll(feed);
+        List<PostDto> postDtos = timeline != null
+                ? findAllByIdInOrder(timeline, postRepository::findDtosByIdIn, PostDto::getId)
+                : postRepository.findFeedDtos(feed.getTopicIds());
+        attachComments(postDtos);
         PostsResponse postsResponse = new PostsResponse();
         postsResponse.setPosts(postDtos);
 
         return postsResponse;
     }
 
+    /**
+     * Réserve l’un des {@code mdd.stream.max-concurrent} flux simultanés du fil.
+     *
+     * <p>
+     * Le corps retourné écrit le fil ({@link #streamAll(Authentication, OutputStream)})
+     * puis libère la réservation. Les réponses asynchrones sont écrites par un pool
+     * d’autant de threads (voir {@code AsyncConfig}) : un flux réservé n’attend pas de thread.
+     * </p>
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @return corps de réponse à écrire de façon asynchrone
+     * @throws ResponseStatusException 503 si tous les flux sont occupés
+     */
+    public StreamingResponseBody openStream(Authentication authentication) {
+        if (!streamPermits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, Constants.STREAM_BUSY);
+        }
+        return outputStream -> {
+            try {
+                streamAll(authentication, outputStream);
+            } finally {
+                streamPermits.release();
+            }
+        };
+    }
+
+    /**
+     * Écrit l’intégralité du fil d’actualité en JSON, au fur et à mesure de sa lecture.
+     *
+     * <p>
+     * Les posts sont lus par pages de {@value Constants#STREAM_PAGE_SIZE} (pagination par
+     * clé sur (created_at, id)), commentaires inclus, chacune dans sa propre transaction
+     * en lecture seule : la connexion est rendue au pool avant l’écriture de la page,
+     * si lent que soit le client, et la mémoire consommée est bornée par une page.
+     * Le format est celui de {@link #getAll(FeedVersion)}.
+     * </p>
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @param outputStream flux de sortie, fermé à la fin de l’écriture
+     * @throws IOException en cas d’erreur d’écriture
+     */
+    public void streamAll(Authentication authentication, OutputStream outputStream) throws IOException {
+        AuthenticatedUser user = currentUserService.resolve(authentication);
+        Set<Integer> subscribedTopicIds = subscriptionService.getSubscribedTopicIds(user.getId());
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(Constants.POSTS_FIELD);
+            List<PostDto> page = subscribedTopicIds.isEmpty() ? List.of() : readStreamPage(subscribedTopicIds, null);
+            while (!page.isEmpty()) {
+                writePage(generator, page);
+                PostDto last = page.get(page.size() - 1);
+                page = page.size() < Constants.STREAM_PAGE_SIZE
+                        ? List.of()
+                        : readStreamPage(subscribedTopicIds, new KeysetCursor(last.getCreatedAt(), last.getId()));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Retourne une page du fil d’actualité, du plus récent au plus ancien.
+     *
+     * <p>
+     * Pagination par clé sur (created_at, id) : la page est lue depuis la timeline
+     * matérialisée de l’utilisateur, ou, au-delà de celle-ci, par une requête par topic
+     * abonné ayant des posts, limitée à la taille de la page puis fusionnée
+     * ({@link TimelineService#findEntries}). Le coût d’une page croît avec le nombre de
+     * topics abonnés, pas avec sa profondeur.
+     * </p>
+     *
+     * @param feed version du fil de l’utilisateur ({@link #feedVersion(Authentication)})
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     * @param size taille de page demandée, plafonnée à {@link Constants#MAX_PAGE_SIZE}
+     * @return {@link PostsResponse} contenant la page et le curseur suivant
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    @ReplicaRead
+    public PostsResponse getPage(FeedVersion feed, String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<TimelineEntry> entries = getFeedEntries(feed, cursor, pageSize);
+
+        PostsResponse postsResponse = new PostsResponse();
+        postsResponse.setNextCursor(nextCursor(entries, pageSize));
+        List<PostDto> postDtos = findAllByIdInOrder(ids(entries, pageSize), postRepository::findDtosByIdIn, PostDto::getId);
+        attachComments(postDtos);
+        postsResponse.setPosts(postDtos);
+
+        return postsResponse;
+    }
+
+    /**
+     * Retourne une page du fil d’actualité sous forme résumée.
+     *
+     * <p>
+     * Chaque post est réduit à un extrait de {@value Constants#EXCERPT_LENGTH} caractères
+     * et au nombre de ses commentaires, lus par une requête dédiée ; le contenu complet
+     * reste disponible via {@link #getById(Integer)}.
+     * </p>
+     *
+     * @param feed version du fil de l’utilisateur ({@link #feedVersion(Authentication)})
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     * @param size taille de page demandée, plafonnée à {@link Constants#MAX_PAGE_SIZE}
+     * @return {@link PostSummariesResponse} contenant la page et le curseur suivant
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    @ReplicaRead
+    public PostSummariesResponse getSummaryPage(FeedVersion feed, String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<TimelineEntry> entries = getFeedEntries(feed, cursor, pageSize);
+
+        PostSummariesResponse summariesResponse = new PostSummariesResponse();
+        summariesResponse.setNextCursor(nextCursor(entries, pageSize));
+        summariesResponse.setPosts(findAllByIdInOrder(ids(entries, pageSize), postRepository::findSummaryDtosByIdIn, PostSummaryDto::getId));
+
+        return summariesResponse;
+    }
+
     /**
      * Retourne un post spécifique par son identifiant.
      *
+     * <p>
+     * Seule la première page des commentaires est incluse, accompagnée du nombre
+     * total de commentaires et du curseur de la page suivante.
+     * </p>
+     *
      * @param id identifiant du post
      * @return {@link PostDto} correspondant
      * @throws IllegalArgumentException si le post n’existe pas
      */
+    @ReplicaRead
     public PostDto getById(Integer id) {
-        Optional<Post> post = postRepository.findById(id);
+        Optional<PostDto> post = postRepository.findDtoById(id);
         if (post.isPresent()) {
-            return postMapper.postToPostDto(post.get());
+            CommentsResponse firstPage = commentService.getPage(id, null, null);
+            post.get().setComments(firstPage.getComments());
+            post.get().setCommentsNextCursor(firstPage.getNextCursor());
+            return post.get();
         } else {
             throw new IllegalArgumentException(Constants.TOPIC_NOT_FOUND);
         }
     }
+
+    /**
+     * Retourne les entrées d’une page du fil, plus une entrée supplémentaire
+     * signalant l’existence d’une page suivante.
+     *
+     * @param feed version du fil de l’utilisateur
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     * @param pageSize taille de page
+     * @return au plus {@code pageSize + 1} entrées, de la plus récente à la plus ancienne
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    private List<TimelineEntry> getFeedEntries(FeedVersion feed, String cursor, int pageSize) {
+        Set<Integer> subscribedTopicIds = feed.getTopicIds();
+        if (subscribedTopicIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        List<TimelineEntry> timeline = timelineService.readPage(feed, after, pageSize + 1);
+        if (timeline != null) {
+            return timeline;
+        }
+        List<Integer> topicsWithPosts = subscribedTopicIds.stream()
+                .filter(topicId -> feed.getLastPostIds().getOrDefault(topicId, 0) > 0)
+                .toList();
+        return timelineService.findEntries(topicsWithPosts, after, pageSize + 1);
+    }
+
+    /**
+     * Calcule le curseur de la page suivante, s’il en existe une.
+     *
+     * @param entries entrées lues (jusqu’à {@code pageSize + 1})
+     * @param pageSize taille de page
+     * @return curseur encodé, ou {@code null} si la page est la dernière
+     */
+    private String nextCursor(List<TimelineEntry> entries, int pageSize) {
+        if (entries.size() <= pageSize) {
+            return null;
+        }
+        TimelineEntry last = entries.get(pageSize - 1);
+        return new KeysetCursor(last.getCreatedAt(), last.getPostId()).encode();
+    }
+
+    private List<Integer> ids(List<TimelineEntry> entries, int pageSize) {
+        return entries.stream()
+                .limit(pageSize)
+                .map(TimelineEntry::getPostId)
+                .toList();
+    }
+
+    /**
+     * Charge des posts par identifiant en conservant l’ordre demandé.
+     *
+     * @param ids identifiants des posts, dans l’ordre du fil
+     * @param loader requête de chargement par identifiants
+     * @param idOf accesseur de l’identifiant d’un post chargé
+     * @return posts correspondants, dans le même ordre
+     */
+    private <T> List<T> findAllByIdInOrder(List<Integer> ids, Function<List<Integer>, List<T>> loader, Function<T, Integer> idOf) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, T> postsById = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lit une page du flux et ses commentaires dans une transaction en lecture seule.
+     *
+     * @param topicIds topics abonnés
+     * @param after dernier post de la page précédente, {@code null} pour la première
+     * @return posts de la page, commentaires renseignés
+     */
+    private List<PostDto> readStreamPage(Set<Integer> topicIds, KeysetCursor after) {
+        Pageable pageable = PageRequest.of(0, Constants.STREAM_PAGE_SIZE);
+        return readOnlyTransaction.execute(status -> {
+            List<PostDto> page = after == null
+                    ? postRepository.findFeedDtoPage(topicIds, pageable)
+                    : postRepository.findFeedDtoPageAfter(topicIds, after.getCreatedAt(), after.getId(), pageable);
+            attachComments(page);
+            return page;
+        });
+    }
+
+    /**
+     * Écrit une page de posts puis la transmet au client sans attendre la fin du fil.
+     */
+    private void writePage(JsonGenerator generator, List<PostDto> page) throws IOException {
+        for (PostDto postDto : page) {
+            generator.writeObject(postDto);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Renseigne les commentaires des posts en une seule requête.
+     *
+     * @param postDtos posts à compléter
+     */
+    private void attachComments(List<PostDto> postDtos) {
+        if (postDtos.isEmpty()) {
+            return;
+        }
+        List<Integer> postIds = postDtos.stream().map(PostDto::getId).toList();
+        Map<Integer, List<CommentDto>> commentsByPost = commentRepository.findDtosByPostIdIn(postIds).stream()
+                .collect(Collectors.groupingBy(CommentDto::getPostId));
+        for (PostDto postDto : postDtos) {
+            postDto.setComments(commentsByPost.getOrDefault(postDto.getId(), new ArrayList<>()));
+        }
+    }
 }
@@ -0,0 +1,520 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.CommentSearchDocument;
+import com.openclassrooms.mddapi.dto.PostSummaryDto;
+import com.openclassrooms.mddapi.dto.SearchDocument;
+import com.openclassrooms.mddapi.dto.SearchResponse;
+import com.openclassrooms.mddapi.pagination.KeysetCursor;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service métier responsable de la recherche plein texte dans les posts.
+ *
+ * <p>
+ * S’appuie sur un index Lucene local ({@code mdd.search.index-dir}) contenant
+ * un document par post (titre et contenu) et un document par commentaire,
+ * analysés en français. Les résultats sont regroupés par post, dans l’ordre de
+ * leur meilleur document. La recherche ne s’appuie jamais sur des {@code LIKE} en base.
+ * </p>
+ *
+ * <p>
+ * Gère :
+ * <ul>
+ *     <li>L’indexation incrémentale à la création d’un post ou d’un commentaire,
+ *     sans relire les autres commentaires du post</li>
+ *     <li>La reconstruction complète de l’index dans une nouvelle génération,
+ *     substituée à l’ancienne une fois complète</li>
+ *     <li>La recherche classée par pertinence, paginée et restreinte aux topics abonnés</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Les mises à jour sont visibles quasi immédiatement (rafraîchissement du lecteur)
+ * et rendues durables par un commit périodique ({@code mdd.search.commit-interval}).
+ * Pendant une reconstruction, l’ancienne génération reste interrogeable et les
+ * mises à jour reçues entre-temps sont rejouées dans la nouvelle avant la bascule.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private static final String DOC_ID = "doc_id";
+    private static final String POST_ID = "post_id";
+    private static final String TOPIC_ID = "topic_id";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+    private static final String COMMENTS = "comments";
+    private static final String POST_PREFIX = "post:";
+    private static final String COMMENT_PREFIX = "comment:";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 3f, CONTENT, 1f, COMMENTS, 0.5f);
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int SEARCH_BATCH_SIZE = 1000;
+    private static final String CURRENT_GENERATION_FILE = "CURRENT";
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final CurrentUserService currentUserService;
+    private final SubscriptionService subscriptionService;
+    private final Analyzer analyzer = new FrenchAnalyzer();
+    private final Path indexDir;
+
+    /** Verrou des écritures d’index et de la bascule de génération. */
+    private final Object indexLock = new Object();
+    private volatile IndexGeneration generation;
+    /** Mises à jour reçues pendant une reconstruction, {@code null} en dehors. */
+    private List<IndexUpdate> pendingUpdates;
+
+    /**
+     * Constructeur avec injection des dépendances ; ouvre (ou crée) la génération courante de l’index.
+     */
+    public SearchService(PostRepository postRepository,
+                         CommentRepository commentRepository,
+                         CurrentUserService currentUserService,
+                         SubscriptionService subscriptionService,
+                         @Value("${mdd.search.index-dir:data/search-index}") Path indexDir) throws IOException {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.currentUserService = currentUserService;
+        this.subscriptionService = subscriptionService;
+        this.indexDir = indexDir;
+
+        Files.createDirectories(indexDir);
+        Path current = currentGenerationPath();
+        this.generation = openGeneration(current, IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        deleteOtherGenerations(current);
+    }
+
+    /**
+     * Recherche des posts dans les topics auxquels l’utilisateur est abonné.
+     *
+     * <p>
+     * Un post est trouvé si son titre et son contenu, ou l’un de ses commentaires,
+     * contiennent l’ensemble des termes recherchés. Le total est plafonné à
+     * {@link Constants#SEARCH_MAX_RESULTS} posts.
+     * </p>
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @param text texte recherché (syntaxe simple : mots, "phrases", -exclusion, préfixe*)
+     * @param page numéro de page, à partir de 0
+     * @param size taille de page demandée, plafonnée à {@link Constants#MAX_PAGE_SIZE}
+     * @return {@link SearchResponse} contenant les posts trouvés, du plus pertinent au moins pertinent
+     * @throws IllegalArgumentException si le texte recherché est vide
+     */
+    public SearchResponse search(Authentication authentication, String text, Integer page, Integer size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException(Constants.INVALID_SEARCH_QUERY);
+        }
+        int pageSize = KeysetCursor.pageSize(size);
+        int pageNumber = page == null || page < 0 ? 0 : page;
+
+        SearchResponse searchResponse = new SearchResponse();
+        searchResponse.setPosts(Collections.emptyList());
+
+        AuthenticatedUser user = currentUserService.resolve(authentication);
+        Set<Integer> subscribedTopicIds = subscriptionService.getSubscribedTopicIds(user.getId());
+        // Calcul en long : le numéro de page est fourni par le client
+        long offset = (long) pageNumber * pageSize;
+        if (subscribedTopicIds.isEmpty() || offset >= Constants.SEARCH_MAX_RESULTS) {
+            return searchResponse;
+        }
+        int from = (int) offset;
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(text);
+        if (textQuery == null) {
+            return searchResponse;
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(IntPoint.newSetQuery(TOPIC_ID, subscribedTopicIds.stream().mapToInt(Integer::intValue).toArray()),
+                        BooleanClause.Occur.FILTER)
+                .build();
+
+        List<Integer> rankedPostIds;
+        try {
+            rankedPostIds = searchPostIds(query);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int to = Math.min(from + pageSize, rankedPostIds.size());
+        searchResponse.setTotalHits(rankedPostIds.size());
+        if (from >= to) {
+            return searchResponse;
+        }
+        if (rankedPostIds.size() > to) {
+            searchResponse.setNextPage(pageNumber + 1);
+        }
+        searchResponse.setPosts(findSummariesInOrder(rankedPostIds.subList(from, to)));
+        return searchResponse;
+    }
+
+    /**
+     * (Ré)indexe un post, ou le retire de l’index avec ses commentaires s’il n’existe plus.
+     *
+     * <p>
+     * Exécuté de façon asynchrone : la création du post n’attend pas l’indexation.
+     * En cas d’échec, l’index est corrigé par une reconstruction complète.
+     * </p>
+     *
+     * @param postId identifiant du post
+     */
+    @Async
+    public void index(Integer postId) {
+        SearchDocument searchDocument = postRepository.findSearchDocumentById(postId).orElse(null);
+        if (searchDocument == null) {
+            apply(new IndexUpdate(new Term(POST_ID, postId.toString()), null));
+        } else {
+            apply(new IndexUpdate(new Term(DOC_ID, POST_PREFIX + postId), toDocument(searchDocument)));
+        }
+    }
+
+    /**
+     * Indexe un commentaire comme document distinct, rattaché à son post.
+     *
+     * <p>
+     * Exécuté de façon asynchrone : la création du commentaire n’attend pas l’indexation.
+     * </p>
+     *
+     * @param commentId identifiant du commentaire
+     */
+    @Async
+    public void indexComment(Integer commentId) {
+        commentRepository.findSearchDocumentById(commentId).ifPresentOrElse(
+                commentDocument -> apply(new IndexUpdate(new Term(DOC_ID, COMMENT_PREFIX + commentId),
+                        toDocument(commentDocument))),
+                () -> apply(new IndexUpdate(new Term(DOC_ID, COMMENT_PREFIX + commentId), null)));
+    }
+
+    /**
+     * Reconstruit entièrement l’index à partir de la base, par lots, dans une nouvelle génération.
+     *
+     * <p>
+     * La génération courante continue de servir les recherches pendant la reconstruction.
+     * La nouvelle génération n’est substituée qu’une fois complète et validée, puis
+     * l’ancienne est supprimée.
+     * </p>
+     *
+     * @return nombre de posts indexés
+     * @throws IOException en cas d’erreur d’écriture de l’index
+     */
+    public synchronized long rebuild() throws IOException {
+        IndexGeneration current = generation;
+        Path path = indexDir.resolve(Long.toString(Long.parseLong(current.path().getFileName().toString()) + 1));
+        deleteRecursively(path);
+        IndexGeneration next = openGeneration(path, IndexWriterConfig.OpenMode.CREATE);
+        synchronized (indexLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        long indexed;
+        try {
+            indexed = indexAllPosts(next.writer());
+            indexAllComments(next.writer());
+            next.writer().commit();
+        } catch (IOException | RuntimeException e) {
+            synchronized (indexLock) {
+                pendingUpdates = null;
+            }
+            next.close();
+            deleteRecursively(path);
+            throw e;
+        }
+
+        synchronized (indexLock) {
+            for (IndexUpdate update : pendingUpdates) {
+                update.applyTo(next.writer());
+            }
+            pendingUpdates = null;
+            next.writer().commit();
+            writeCurrentGeneration(path);
+            generation = next;
+        }
+        next.searcherManager().maybeRefresh();
+        current.close();
+        deleteRecursively(current.path());
+        return indexed;
+    }
+
+    /**
+     * Rend durables les mises à jour de l’index.
+     */
+    @Scheduled(fixedDelayString = "${mdd.search.commit-interval:PT30S}")
+    public void commit() {
+        try {
+            synchronized (indexLock) {
+                IndexWriter indexWriter = generation.writer();
+                if (indexWriter.hasUncommittedChanges()) {
+                    indexWriter.commit();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Search index commit failed", e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        generation.close();
+    }
+
+    /**
+     * Parcourt les documents trouvés par pertinence décroissante et en déduit
+     * les posts distincts, dans l’ordre de leur meilleur document.
+     */
+    private List<Integer> searchPostIds(Query query) throws IOException {
+        Set<Integer> postIds = new LinkedHashSet<>();
+        SearcherManager searcherManager;
+        IndexSearcher searcher;
+        while (true) {
+            searcherManager = generation.searcherManager();
+            try {
+                searcher = searcherManager.acquire();
+                break;
+            } catch (AlreadyClosedException e) {
+                // génération remplacée entre la lecture et l’acquisition : on relit la courante
+            }
+        }
+        try {
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc after = null;
+            ScoreDoc[] scoreDocs;
+            do {
+                TopDocs topDocs = searcher.searchAfter(after, query, SEARCH_BATCH_SIZE);
+                scoreDocs = topDocs.scoreDocs;
+                for (ScoreDoc scoreDoc : scoreDocs) {
+                    postIds.add(Integer.valueOf(storedFields.document(scoreDoc.doc).get(POST_ID)));
+                    if (postIds.size() == Constants.SEARCH_MAX_RESULTS) {
+                        return new ArrayList<>(postIds);
+                    }
+                }
+                after = scoreDocs.length == 0 ? null : scoreDocs[scoreDocs.length - 1];
+            } while (scoreDocs.length == SEARCH_BATCH_SIZE);
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return new ArrayList<>(postIds);
+    }
+
+    /**
+     * Applique une mise à jour à la génération courante, et la conserve pour la
+     * rejouer si une reconstruction est en cours.
+     */
+    private void apply(IndexUpdate update) {
+        IndexGeneration target;
+        try {
+            synchronized (indexLock) {
+                if (pendingUpdates != null) {
+                    pendingUpdates.add(update);
+                }
+                target = generation;
+                update.applyTo(target.writer());
+            }
+        } catch (IOException e) {
+            logger.warn("Search indexing of {} failed", update.term().text(), e);
+            return;
+        }
+        try {
+            target.searcherManager().maybeRefresh();
+        } catch (AlreadyClosedException e) {
+            // génération remplacée entre-temps : la mise à jour y a été rejouée
+        } catch (IOException e) {
+            logger.warn("Search index refresh failed", e);
+        }
+    }
+
+    private long indexAllPosts(IndexWriter indexWriter) throws IOException {
+        long indexed = 0;
+        int afterId = 0;
+        List<SearchDocument> batch;
+        do {
+            batch = postRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (SearchDocument searchDocument : batch) {
+                indexWriter.addDocument(toDocument(searchDocument));
+            }
+            indexed += batch.size();
+            afterId = batch.get(batch.size() - 1).getPostId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return indexed;
+    }
+
+    private void indexAllComments(IndexWriter indexWriter) throws IOException {
+        int afterId = 0;
+        List<CommentSearchDocument> batch;
+        do {
+            batch = commentRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (CommentSearchDocument commentDocument : batch) {
+                indexWriter.addDocument(toDocument(commentDocument));
+            }
+            afterId = batch.get(batch.size() - 1).getCommentId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+    }
+
+    private Document toDocument(SearchDocument searchDocument) {
+        Document document = new Document();
+        document.add(new StringField(DOC_ID, POST_PREFIX + searchDocument.getPostId(), Field.Store.NO));
+        document.add(new StringField(POST_ID, searchDocument.getPostId().toString(), Field.Store.YES));
+        document.add(new IntPoint(TOPIC_ID, searchDocument.getTopicId()));
+        document.add(new TextField(TITLE, searchDocument.getTitle(), Field.Store.NO));
+        document.add(new TextField(CONTENT, searchDocument.getContent(), Field.Store.NO));
+        return document;
+    }
+
+    private Document toDocument(CommentSearchDocument commentDocument) {
+        Document document = new Document();
+        document.add(new StringField(DOC_ID, COMMENT_PREFIX + commentDocument.getCommentId(), Field.Store.NO));
+        document.add(new StringField(POST_ID, commentDocument.getPostId().toString(), Field.Store.YES));
+        document.add(new IntPoint(TOPIC_ID, commentDocument.getTopicId()));
+        document.add(new TextField(COMMENTS, commentDocument.getContent(), Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * Génération courante désignée par le fichier {@value #CURRENT_GENERATION_FILE},
+     * ou génération {@code 0} pour un index neuf.
+     */
+    private Path currentGenerationPath() throws IOException {
+        Path currentFile = indexDir.resolve(CURRENT_GENERATION_FILE);
+        if (!Files.exists(currentFile)) {
+            return indexDir.resolve("0");
+        }
+        return indexDir.resolve(Files.readString(currentFile, StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeCurrentGeneration(Path path) throws IOException {
+        Path tmp = indexDir.resolve(CURRENT_GENERATION_FILE + ".tmp");
+        Files.writeString(tmp, path.getFileName().toString(), StandardCharsets.UTF_8);
+        Files.move(tmp, indexDir.resolve(CURRENT_GENERATION_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Supprime les générations abandonnées (reconstruction interrompue ou ancienne génération).
+     */
+    private void deleteOtherGenerations(Path current) throws IOException {
+        try (Stream<Path> children = Files.list(indexDir)) {
+            for (Path child : children.toList()) {
+                if (!child.equals(current) && Files.isDirectory(child)
+                        && child.getFileName().toString().chars().allMatch(Character::isDigit)) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path file : paths.sorted(Collections.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private IndexGeneration openGeneration(Path path, IndexWriterConfig.OpenMode openMode) throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer).setOpenMode(openMode);
+        IndexWriter indexWriter = new IndexWriter(FSDirectory.open(path), config);
+        return new IndexGeneration(path, indexWriter, new SearcherManager(indexWriter, null));
+    }
+
+    private List<PostSummaryDto> findSummariesInOrder(List<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, PostSummaryDto> postsById = postRepository.findSummaryDtosByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummaryDto::getId, Function.identity()));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Génération de l’index : répertoire, writer et lecteurs associés.
+     */
+    private record IndexGeneration(Path path, IndexWriter writer, SearcherManager searcherManager) {
+
+        void close() throws IOException {
+            searcherManager.close();
+            writer.close();
+        }
+    }
+
+    /**
+     * Mise à jour d’index : remplacement du document identifié par {@code term},
+     * ou suppression des documents correspondants si {@code document} est {@code null}.
+     */
+    private record IndexUpdate(Term term, Document document) {
+
+        void applyTo(IndexWriter indexWriter) throws IOException {
+            if (document == null) {
+                indexWriter.deleteDocuments(term);
+            } else {
+                indexWriter.updateDocument(term, document);
+            }
+        }
+    }
+}
@@ -1,40 +1,49 @@
 package com.openclassrooms.mddapi.service;
 
 import com.openclassrooms.mddapi.constants.Constants;
-import com.openclassrooms.mddapi.model.Subscription;
-import com.openclassrooms.mddapi.model.Topic;
-import com.openclassrooms.mddapi.model.User;
 import com.openclassrooms.mddapi.repository.SubscriptionRepository;
 import com.openclassrooms.mddapi.repository.TopicRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Service métier responsable de la gestion des abonnements aux topics.
  *
  * <p>
  * Permet :
  * <ul>
- *     <li>De s’abonner à un topic</li>
- *     <li>De se désabonner d’un topic</li>
+ *     <li>De s’abonner à un ou plusieurs topics</li>
+ *     <li>De se désabonner d’un ou plusieurs topics</li>
+ *     <li>De récupérer les topics abonnés d’un utilisateur</li>
  * </ul>
  * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final TopicRepository topicRepository;
-    private final UserService userService;
+    private final TimelineService timelineService;
+    private final CurrentUserService currentUserService;
+    private final FeedEventHub feedEventHub;
+    private final CounterService counterService;
 
     /**
      * Constructeur avec injection des dépendances.
      */
-    public SubscriptionService(SubscriptionRepository subscriptionRepository, TopicRepository topicRepository, UserService userService) {
+    public SubscriptionService(SubscriptionRepository subscriptionRepository, TopicRepository topicRepository, TimelineService timelineService, CurrentUserService currentUserService, FeedEventHub feedEventHub, CounterService counterService) {
         this.subscriptionRepository = subscriptionRepository;
         this.topicRepository = topicRepository;
-        this.userService = userService;
+        this.timelineService = timelineService;
+        this.currentUserService = currentUserService;
+        this.feedEventHub = feedEventHub;
+        this.counterService = counterService;
     }
 
     /**
@@ -50,20 +59,39 @@ public class SubscriptionService {
      */
     public void subscribe(Authentication authentication, Integer topicId) {
 
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
+        Integer userId = currentUserService.resolve(authentication).getId();
 
-        if (subscriptionRepository.existsByUserIdAndTopicId(user.getId(), topicId)) {
+        if (subscriptionRepository.insertIgnore(userId, List.of(topicId)) == 0) {
+            if (!topicRepository.existsById(topicId)) {
+                throw new RuntimeException(Constants.TOPIC_NOT_FOUND);
+            }
             return; // déjà abonné
         }
+        onSubscribed(userId, List.of(topicId));
+    }
 
-        Topic topic = topicRepository.findById(topicId).orElseThrow(() -> new RuntimeException(Constants.TOPIC_NOT_FOUND));
+    /**
+     * Abonne l’utilisateur authentifié à plusieurs topics.
+     *
+     * <p>
+     * Une seule requête d’insertion, idempotente : les abonnements existants
+     * et les topics inexistants sont ignorés.
+     * </p>
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @param topicIds identifiants des topics
+     * @return nombre d’abonnements créés
+     */
+    public int subscribeAll(Authentication authentication, Collection<Integer> topicIds) {
 
-        Subscription subscription = new Subscription();
-        subscription.setUser(user);
-        subscription.setTopic(topic);
+        Integer userId = currentUserService.resolve(authentication).getId();
+        Set<Integer> distinctTopicIds = Set.copyOf(topicIds);
 
-        subscriptionRepository.save(subscription);
+        int created = subscriptionRepository.insertIgnore(userId, distinctTopicIds);
+        if (created > 0) {
+            onSubscribed(userId, distinctTopicIds);
+        }
+        return created;
     }
 
     /**
@@ -72,13 +100,49 @@ public class SubscriptionService {
      * @param authentication utilisateur actuellement authentifié
      * @param topicId identifiant du topic
      */
-    @Transactional
     public void unsubscribe(Authentication authentication, Integer topicId) {
+        unsubscribeAll(authentication, List.of(topicId));
+    }
 
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
+    /**
+     * Désabonne l’utilisateur authentifié de plusieurs topics, en une seule requête.
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @param topicIds identifiants des topics
+     * @return nombre d’abonnements supprimés
+     */
+    public int unsubscribeAll(Authentication authentication, Collection<Integer> topicIds) {
+
+        Integer userId = currentUserService.resolve(authentication).getId();
+        Set<Integer> distinctTopicIds = Set.copyOf(topicIds);
+
+        int deleted = subscriptionRepository.deleteByUserIdAndTopicIdIn(userId, distinctTopicIds);
+        if (deleted > 0) {
+            timelineService.onUnsubscribe(userId, distinctTopicIds);
+            feedEventHub.onUnsubscribe(userId, distinctTopicIds);
+            counterService.onSubscriptionsChanged(distinctTopicIds);
+        }
+        return deleted;
+    }
+
+    /**
+     * Retourne les identifiants des topics auxquels un utilisateur est abonné.
+     *
+     * <p>
+     * Une seule requête indexée sur (user_id, topic_id), sans charger les entités.
+     * </p>
+     *
+     * @param userId identifiant de l’utilisateur
+     * @return ensemble des identifiants de topics abonnés
+     */
+    public Set<Integer> getSubscribedTopicIds(Integer userId) {
+        return subscriptionRepository.findTopicIdsByUserId(userId);
+    }
 
-        subscriptionRepository.deleteByUserIdAndTopicId(user.getId(), topicId);
+    private void onSubscribed(Integer userId, Collection<Integer> topicIds) {
+        timelineService.onSubscribe(userId, topicIds);
+        feedEventHub.onSubscribe(userId, topicIds);
+        counterService.onSubscriptionsChanged(topicIds);
     }
 
 }
@@ -0,0 +1,467 @@
+package com.openclassrooms.mddapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openclassrooms.mddapi.datasource.ReplicaRouting;
+import com.openclassrooms.mddapi.dto.FeedVersion;
+import com.openclassrooms.mddapi.dto.TimelineEntry;
+import com.openclassrooms.mddapi.dto.TopicContentVersion;
+import com.openclassrooms.mddapi.model.Post;
+import com.openclassrooms.mddapi.pagination.KeysetCursor;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service métier responsable des fils d’actualité matérialisés (timelines).
+ *
+ * <p>
+ * Chaque timeline contient les identifiants des posts les plus récents des topics
+ * auxquels un utilisateur est abonné, triés par (created_at, id) décroissant et
+ * plafonnés à {@code mdd.timeline.capacity} entrées.
+ * </p>
+ *
+ * <p>
+ * Les timelines sont alimentées à l’écriture (fan-out-on-write) :
+ * <ul>
+ *     <li>La création d’un post l’ajoute aux timelines chargées des abonnés du topic</li>
+ *     <li>Un abonnement y fusionne les posts récents des topics</li>
+ *     <li>Un désabonnement en retire les posts des topics</li>
+ * </ul>
+ * Une timeline absente est reconstruite à la première lecture. Le nombre de
+ * timelines conservées en mémoire est borné.
+ * </p>
+ *
+ * <p>
+ * La diffusion ne couvre ni les posts créés par une autre instance ou par les écritures
+ * en masse, ni un post validé pendant la construction d’une timeline. Chaque timeline
+ * retient donc, par topic, l’identifiant du dernier post qu’elle a vu ; chaque lecture
+ * le compare au dernier post de chaque topic abonné ({@code topics.last_post_id}), lu
+ * par clé primaire avec l’ETag du fil ({@link FeedVersion}), et seuls les topics en
+ * retard sont rechargés puis fusionnés. Les repères sont lus avant les posts : un post
+ * validé entre les deux est simplement fusionné une seconde fois. Seul un post validé
+ * après un post d’identifiant supérieur déjà vu peut encore manquer, jusqu’à
+ * l’expiration de la timeline.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class TimelineService {
+
+    /** Ordre du fil : du plus récent au plus ancien. */
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt)
+            .thenComparing(TimelineEntry::getPostId)
+            .reversed();
+
+    private final PostRepository postRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final TopicRepository topicRepository;
+    private final int capacity;
+    private final Cache<Integer, Timeline> timelines;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public TimelineService(PostRepository postRepository,
+                           SubscriptionRepository subscriptionRepository,
+                           TopicRepository topicRepository,
+                           @Value("${mdd.timeline.capacity:500}") int capacity,
+                           @Value("${mdd.timeline.max-users:10000}") long maxUsers,
+                           @Value("${mdd.timeline.ttl:PT30M}") Duration ttl) {
+        this.postRepository = postRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.topicRepository = topicRepository;
+        this.capacity = capacity;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Lit une page du fil d’un utilisateur depuis sa timeline.
+     *
+     * @param feed version du fil, lue pour son ETag
+     * @param after curseur de la page précédente (null pour la première page)
+     * @param limit nombre maximal d’entrées retournées
+     * @return entrées de la page, ou {@code null} si la page dépasse la timeline
+     *         et doit être lue en base
+     */
+    public List<TimelineEntry> readPage(FeedVersion feed, KeysetCursor after, int limit) {
+        return timeline(feed).page(after, limit);
+    }
+
+    /**
+     * Lit l’intégralité du fil d’un utilisateur si sa timeline couvre tout l’historique.
+     *
+     * @param feed version du fil, lue pour son ETag
+     * @return identifiants de tous les posts du fil, ou {@code null} si la timeline est tronquée
+     */
+    public List<Integer> readAll(FeedVersion feed) {
+        return timeline(feed).all();
+    }
+
+    /**
+     * Lit en base les entrées les plus récentes de topics, strictement plus anciennes
+     * qu’un curseur.
+     *
+     * <p>
+     * Chaque topic est lu par sa propre requête limitée à {@code limit} entrées : un
+     * parcours d’intervalle de l’index (topic_id, created_at, id), sans tri. Les listes
+     * sont fusionnées en mémoire, soit au plus {@code limit} entrées lues par topic quelle
+     * que soit la profondeur du curseur, au prix d’une requête par topic. Une seule
+     * requête sur {@code topic_id IN (...)} obligerait la base à trier toutes les lignes
+     * des topics à chaque page.
+     * </p>
+     *
+     * @param topicIds identifiants des topics
+     * @param after curseur de la page précédente (null pour la première page)
+     * @param limit nombre maximal d’entrées retournées
+     * @return au plus {@code limit} entrées, de la plus récente à la plus ancienne
+     */
+    public List<TimelineEntry> findEntries(Collection<Integer> topicIds, KeysetCursor after, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        List<List<TimelineEntry>> perTopic = new ArrayList<>(topicIds.size());
+        for (Integer topicId : topicIds) {
+            perTopic.add(after == null
+                    ? postRepository.findTimelineEntriesByTopicId(topicId, pageable)
+                    : postRepository.findTimelineEntriesByTopicIdAfter(topicId, after.getCreatedAt(), after.getId(), pageable));
+        }
+        return mergeNewestFirst(perTopic, limit);
+    }
+
+    /**
+     * Ajoute un post nouvellement créé aux timelines chargées des abonnés de son topic.
+     *
+     * <p>
+     * Exécuté de façon asynchrone sur l’exécuteur de tâches de l’application
+     * (threads virtuels si le mode est activé) : la création du post n’attend pas
+     * la diffusion aux abonnés. Un fil lu avant la fin de la diffusion rattrape
+     * le post par ses marques de topic.
+     * </p>
+     *
+     * @param post post enregistré
+     */
+    @Async
+    public void onPostCreated(Post post) {
+        TimelineEntry entry = new TimelineEntry(post.getId(), post.getTopic().getId(), post.getCreatedAt());
+        for (Integer userId : subscriptionRepository.findUserIdsByTopicId(entry.getTopicId())) {
+            Timeline timeline = timelines.getIfPresent(userId);
+            if (timeline != null) {
+                timeline.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Fusionne les posts récents de topics dans la timeline d’un nouvel abonné.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @param topicIds identifiants des topics
+     */
+    public void onSubscribe(Integer userId, Collection<Integer> topicIds) {
+        Timeline timeline = timelines.getIfPresent(userId);
+        if (timeline != null && !topicIds.isEmpty()) {
+            Map<Integer, Integer> lastPostIds = new HashMap<>();
+            for (TopicContentVersion version : topicRepository.findContentVersionsByIdIn(topicIds)) {
+                lastPostIds.put(version.getTopicId(), version.getLastPostId());
+            }
+            timeline.merge(fetch(topicIds), lastPostIds);
+        }
+    }
+
+    /**
+     * Retire les posts de topics de la timeline d’un utilisateur désabonné.
+     *
+     * @param userId identifiant de l’utilisateur
+     * @param topicIds identifiants des topics
+     */
+    public void onUnsubscribe(Integer userId, Collection<Integer> topicIds) {
+        Timeline timeline = timelines.getIfPresent(userId);
+        if (timeline != null) {
+            timeline.removeTopics(Set.copyOf(topicIds));
+        }
+    }
+
+    /**
+     * Retourne la timeline d’un utilisateur, construite si nécessaire, sinon mise à jour
+     * des posts qu’elle n’a pas vus.
+     *
+     * <p>
+     * La construction (requête SQL) est faite hors du verrou interne du cache, afin
+     * de ne jamais bloquer un thread porteur de threads virtuels pendant l’accès JDBC.
+     * Deux constructions concurrentes pour un même utilisateur sont sans effet :
+     * la première enregistrée est conservée, puis mise à jour.
+     * </p>
+     */
+    private Timeline timeline(FeedVersion feed) {
+        Timeline timeline = timelines.getIfPresent(feed.getUserId());
+        if (timeline == null) {
+            Timeline built = build(feed);
+            timeline = timelines.asMap().putIfAbsent(feed.getUserId(), built);
+            if (timeline == null) {
+                return built;
+            }
+        }
+        catchUp(timeline, feed);
+        return timeline;
+    }
+
+    private Timeline build(FeedVersion feed) {
+        Map<Integer, Integer> marks = new HashMap<>(feed.getLastPostIds());
+        Set<Integer> withPosts = topicsWithPosts(marks);
+        if (withPosts.isEmpty()) {
+            return new Timeline(new ArrayList<>(), marks, true);
+        }
+        return new Timeline(new ArrayList<>(fetch(withPosts)), marks, false).normalize();
+    }
+
+    /**
+     * Aligne une timeline sur la version du fil : retire les topics qui ne sont plus
+     * abonnés (désabonnement sur une autre instance) et recharge ceux dont un post n’a
+     * pas été vu. Sans requête si la timeline est à jour.
+     */
+    private void catchUp(Timeline timeline, FeedVersion feed) {
+        timeline.retainTopics(feed.getTopicIds());
+        Set<Integer> behind = timeline.topicsBehind(feed.getLastPostIds());
+        if (!behind.isEmpty()) {
+            timeline.merge(fetch(behind), feed.getLastPostIds());
+        }
+    }
+
+    private static Set<Integer> topicsWithPosts(Map<Integer, Integer> lastPostIds) {
+        Set<Integer> topicIds = new HashSet<>();
+        lastPostIds.forEach((topicId, lastPostId) -> {
+            if (lastPostId > 0) {
+                topicIds.add(topicId);
+            }
+        });
+        return topicIds;
+    }
+
+    private List<TimelineEntry> fetch(Collection<Integer> topicIds) {
+        return ReplicaRouting.onPrimary(() -> findEntries(topicIds, null, capacity));
+    }
+
+    /**
+     * Fusion k-voies de listes triées du plus récent au plus ancien : une file de
+     * priorité retient la tête de chaque liste, soit O(limit × log k) comparaisons.
+     */
+    private static List<TimelineEntry> mergeNewestFirst(List<List<TimelineEntry>> sorted, int limit) {
+        if (sorted.size() == 1) {
+            return sorted.get(0);
+        }
+        PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(Comparator.comparing(PeekingIterator::peek, NEWEST_FIRST));
+        for (List<TimelineEntry> entries : sorted) {
+            if (!entries.isEmpty()) {
+                heads.add(new PeekingIterator(entries.iterator()));
+            }
+        }
+        List<TimelineEntry> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            PeekingIterator head = heads.poll();
+            merged.add(head.next());
+            if (head.peek() != null) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /** Itérateur exposant son prochain élément, {@code null} en fin de liste. */
+    private static final class PeekingIterator {
+
+        private final Iterator<TimelineEntry> iterator;
+        private TimelineEntry next;
+
+        private PeekingIterator(Iterator<TimelineEntry> iterator) {
+            this.iterator = iterator;
+            this.next = iterator.next();
+        }
+
+        TimelineEntry peek() {
+            return next;
+        }
+
+        TimelineEntry next() {
+            TimelineEntry current = next;
+            next = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+    }
+
+    /**
+     * Timeline d’un utilisateur : liste triée et plafonnée d’entrées.
+     *
+     * <p>
+     * Invariant : tous les posts des topics abonnés plus récents que la dernière
+     * entrée sont présents. {@code complete} indique que la timeline couvre
+     * l’intégralité de l’historique ; {@code marks} retient, par topic, l’identifiant
+     * du dernier post vu (0 si aucun), et contient tous les topics des entrées.
+     * </p>
+     *
+     * <p>
+     * Les lectures concurrentes partagent un verrou en lecture ; les verrous
+     * {@link ReentrantReadWriteLock} ne fixent pas les threads virtuels à leur
+     * thread porteur, contrairement aux blocs {@code synchronized}.
+     * </p>
+     */
+    private final class Timeline {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, Integer> marks;
+        private List<TimelineEntry> entries;
+        private boolean complete;
+
+        private Timeline(List<TimelineEntry> entries, Map<Integer, Integer> marks, boolean complete) {
+            this.entries = entries;
+            this.marks = marks;
+            this.complete = complete;
+        }
+
+        /** Détermine la complétude d’une timeline fraîchement construite. */
+        private Timeline normalize() {
+            complete = entries.size() < capacity;
+            return this;
+        }
+
+        List<TimelineEntry> page(KeysetCursor after, int limit) {
+            lock.readLock().lock();
+            try {
+                int start = 0;
+                if (after != null) {
+                    TimelineEntry bound = new TimelineEntry(after.getId(), null, after.getCreatedAt());
+                    while (start < entries.size() && NEWEST_FIRST.compare(entries.get(start), bound) <= 0) {
+                        start++;
+                    }
+                }
+                int end = Math.min(start + limit, entries.size());
+                if (end - start < limit && !complete) {
+                    return null;
+                }
+                return List.copyOf(entries.subList(start, end));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Integer> all() {
+            lock.readLock().lock();
+            try {
+                return complete ? ids(entries) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @param current identifiant du dernier post de chaque topic
+         * @return topics dont le dernier post n’a pas été vu
+         */
+        Set<Integer> topicsBehind(Map<Integer, Integer> current) {
+            lock.readLock().lock();
+            try {
+                Set<Integer> behind = new HashSet<>();
+                current.forEach((topicId, maxPostId) -> {
+                    if (marks.getOrDefault(topicId, 0) < maxPostId) {
+                        behind.add(topicId);
+                    }
+                });
+                return behind;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(TimelineEntry entry) {
+            merge(List.of(entry), Map.of(entry.getTopicId(), entry.getPostId()));
+        }
+
+        /**
+         * Fusionne des posts, lus après les repères {@code seen} de leurs topics.
+         */
+        void merge(List<TimelineEntry> incoming, Map<Integer, Integer> seen) {
+            lock.writeLock().lock();
+            try {
+                seen.forEach((topicId, maxPostId) -> marks.merge(topicId, maxPostId, Math::max));
+                boolean truncatedSource = incoming.size() >= capacity;
+                List<TimelineEntry> merged = new ArrayList<>(entries.size() + incoming.size());
+                Set<Integer> postIds = new HashSet<>();
+                for (TimelineEntry entry : entries) {
+                    postIds.add(entry.getPostId());
+                    merged.add(entry);
+                }
+                for (TimelineEntry entry : incoming) {
+                    if (postIds.add(entry.getPostId())) {
+                        merged.add(entry);
+                    }
+                }
+                merged.sort(NEWEST_FIRST);
+                if (merged.size() > capacity) {
+                    merged = new ArrayList<>(merged.subList(0, capacity));
+                    complete = false;
+                } else if (truncatedSource) {
+                    complete = false;
+                }
+                entries = merged;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeTopics(Set<Integer> topicIds) {
+            lock.writeLock().lock();
+            try {
+                entries.removeIf(entry -> topicIds.contains(entry.getTopicId()));
+                marks.keySet().removeAll(topicIds);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void retainTopics(Set<Integer> topicIds) {
+            lock.readLock().lock();
+            boolean extra;
+            try {
+                // Les topics des entrées sont tous repérés : la comparaison ne dépend que du nombre de topics
+                extra = !topicIds.containsAll(marks.keySet());
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (extra) {
+                lock.writeLock().lock();
+                try {
+                    entries.removeIf(entry -> !topicIds.contains(entry.getTopicId()));
+                    marks.keySet().retainAll(topicIds);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        private List<Integer> ids(List<TimelineEntry> slice) {
+            return slice.stream().map(TimelineEntry::getPostId).toList();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.model.RevokedToken;
+import com.openclassrooms.mddapi.repository.RevokedTokenRepository;
+import com.openclassrooms.mddapi.security.BloomFilter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service métier responsable de la révocation des JWT.
+ *
+ * <p>
+ * Gère :
+ * <ul>
+ *     <li>La révocation d’un token précis, identifié par son {@code jti} (déconnexion)</li>
+ *     <li>La révocation de tous les tokens d’un utilisateur émis avant un instant
+ *     (mise à jour du compte)</li>
+ *     <li>La vérification, à chaque requête, qu’un token n’est pas révoqué</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Les révocations sont persistées dans {@code revoked_tokens} et conservées en mémoire :
+ * un filtre de Bloom écarte sans recherche la quasi-totalité des tokens valides, un
+ * ensemble exact confirme les correspondances. La vérification ne fait donc aucun accès
+ * à la base. L’état est rechargé depuis la base au démarrage puis périodiquement
+ * ({@code mdd.revocation.sync-interval}), ce qui purge les révocations expirées et
+ * propage celles des autres instances.
+ * </p>
+ */
+@Service
+@Timed(value = "mdd.service", histogram = true)
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedTokens;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile State state;
+
+    /**
+     * Constructeur avec injection des dépendances.
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${mdd.revocation.expected-tokens:100000}") int expectedTokens) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.state = new State(expectedTokens);
+    }
+
+    /**
+     * Indique si un token a été révoqué.
+     *
+     * @param jwt token vérifié
+     * @return {@code true} si le token ne doit plus être accepté
+     */
+    public boolean isRevoked(Jwt jwt) {
+        State current = state;
+        String jti = jwt.getId();
+        if (jti != null && current.jtiFilter.mightContain(jti) && current.revokedJtis.containsKey(jti)) {
+            return true;
+        }
+        Number userId = jwt.getClaim(Constants.USER_ID_CLAIM);
+        if (userId == null || current.userCutoffs.isEmpty()) {
+            return false;
+        }
+        Instant cutoff = current.userCutoffs.get(userId.intValue());
+        return cutoff != null && jwt.getIssuedAt() != null && jwt.getIssuedAt().isBefore(cutoff);
+    }
+
+    /**
+     * Révoque un token précis.
+     *
+     * @param jwt token à révoquer
+     */
+    public void revoke(Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            return;
+        }
+        RevokedToken revokedToken = RevokedToken.builder()
+                .jti(jwt.getId())
+                .expiresAt(jwt.getExpiresAt())
+                .build();
+        revokedTokenRepository.save(revokedToken);
+        addToState(revokedToken);
+    }
+
+    /**
+     * Révoque tous les tokens d’un utilisateur émis avant la seconde courante.
+     *
+     * <p>
+     * L’instant de coupure est tronqué à la seconde, précision du claim {@code iat} :
+     * un token émis juste après, dans la même seconde, reste valide.
+     * </p>
+     *
+     * @param userId identifiant de l’utilisateur
+     */
+    public void revokeAllIssuedBefore(Integer userId) {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        RevokedToken revokedToken = RevokedToken.builder()
+                .userId(userId)
+                .issuedBefore(cutoff)
+                .expiresAt(cutoff.plus(Constants.TOKEN_VALIDITY))
+                .build();
+        revokedTokenRepository.save(revokedToken);
+        addToState(revokedToken);
+    }
+
+    /**
+     * Recharge les révocations depuis la base et supprime celles qui ont expiré.
+     */
+    @PostConstruct
+    @Scheduled(initialDelayString = "${mdd.revocation.sync-interval:PT1M}",
+            fixedDelayString = "${mdd.revocation.sync-interval:PT1M}")
+    public void synchronize() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        lock.lock();
+        try {
+            List<RevokedToken> revokedTokens = revokedTokenRepository.findByExpiresAtAfter(now);
+            State reloaded = new State(Math.max(expectedTokens, revokedTokens.size() * 2));
+            revokedTokens.forEach(reloaded::add);
+            state = reloaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute une révocation déjà persistée à l’état en mémoire.
+     *
+     * <p>
+     * Seul l’ajout est fait sous le verrou, l’écriture en base le précède : un rechargement
+     * concurrent lit la révocation en base s’il précède l’ajout, sinon l’ajout attend le
+     * remplacement de l’état et s’applique au nouvel état.
+     * </p>
+     */
+    private void addToState(RevokedToken revokedToken) {
+        lock.lock();
+        try {
+            state.add(revokedToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Révocations en mémoire. Remplacé en bloc à chaque rechargement,
+     * le filtre de Bloom ne permettant pas de retirer une valeur.
+     */
+    private static final class State {
+
+        private final BloomFilter jtiFilter;
+        private final Map<String, Instant> revokedJtis = new ConcurrentHashMap<>();
+        private final Map<Integer, Instant> userCutoffs = new ConcurrentHashMap<>();
+
+        private State(int expectedTokens) {
+            this.jtiFilter = new BloomFilter(expectedTokens, 0.01);
+        }
+
+        private void add(RevokedToken revokedToken) {
+            if (revokedToken.getJti() != null) {
+                revokedJtis.put(revokedToken.getJti(), revokedToken.getExpiresAt());
+                jtiFilter.put(revokedToken.getJti());
+            }
+            if (revokedToken.getUserId() != null && revokedToken.getIssuedBefore() != null) {
+                userCutoffs.merge(revokedToken.getUserId(), revokedToken.getIssuedBefore(),
+                        (previous, next) -> next.isAfter(previous) ? next : previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.datasource.ReplicaRouting;
+import com.openclassrooms.mddapi.dto.TopicCatalogVersion;
+import com.openclassrooms.mddapi.dto.TopicDto;
+import com.openclassrooms.mddapi.mapper.TopicMapper;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Catalogue des topics partagé par toutes les requêtes.
+ *
+ * <p>
+ * Le catalogue est identique pour tous les utilisateurs : il est chargé une fois
+ * en mémoire sous la forme d’un instantané immuable et versionné, puis servi sans
+ * autre accès à la base que la vérification périodique décrite ci-dessous. L’état
+ * propre à chaque utilisateur (ses abonnements) est fusionné au moment de construire
+ * la réponse.
+ * </p>
+ *
+ * <p>
+ * L’instantané est rechargé à chaque création de topic ({@link #refresh()}). Les
+ * modifications faites par une autre instance sont détectées par une lecture de
+ * l’empreinte de la table (nombre de topics, identifiant et date de mise à jour
+ * maximaux, total des abonnés), au plus une fois par
+ * {@code mdd.topics.catalog-check-interval}, soit une requête d’agrégat par instance
+ * et par intervalle, quel que soit le nombre de requêtes servies. Les rechargements
+ * sont sérialisés : le dernier rechargement lit toujours l’état validé le plus récent.
+ * </p>
+ */
+@Component
+public class TopicCatalog {
+
+    private final TopicRepository topicRepository;
+    private final TopicMapper topicMapper;
+    private final long checkIntervalNanos;
+    private volatile Snapshot snapshot;
+    /** Instant (nanoTime) de la dernière vérification de l’empreinte en base. */
+    private volatile long checkedAt;
+
+    public TopicCatalog(TopicRepository topicRepository,
+                        TopicMapper topicMapper,
+                        @Value("${mdd.topics.catalog-check-interval:PT5S}") Duration checkInterval) {
+        this.topicRepository = topicRepository;
+        this.topicMapper = topicMapper;
+        this.checkIntervalNanos = checkInterval.toNanos();
+    }
+
+    /**
+     * Retourne l’instantané courant du catalogue, chargé si nécessaire ou
+     * rechargé si l’empreinte des topics en base a changé.
+     *
+     * @return instantané immuable du catalogue
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - checkedAt < checkIntervalNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && System.nanoTime() - checkedAt < checkIntervalNanos) {
+                return current;
+            }
+            TopicCatalogVersion dbVersion = readDbVersion();
+            if (current != null && Objects.equals(dbVersion, current.dbVersion)) {
+                checkedAt = System.nanoTime();
+                return current;
+            }
+            return load(dbVersion);
+        }
+    }
+
+    /**
+     * Recharge le catalogue depuis la base, après une modification des topics.
+     */
+    public synchronized void refresh() {
+        load(readDbVersion());
+    }
+
+    /**
+     * Retourne les topics du catalogue, marqués selon les abonnements de l’utilisateur.
+     *
+     * @param subscribedTopicIds identifiants des topics abonnés
+     * @return liste de {@link TopicDto}
+     */
+    public List<TopicDto> topics(Set<Integer> subscribedTopicIds) {
+        return topicMapper.withSubscriptions(snapshot().getTopics(), subscribedTopicIds);
+    }
+
+    /**
+     * Retourne uniquement les topics abonnés, dans l’ordre du catalogue.
+     *
+     * @param subscribedTopicIds identifiants des topics abonnés
+     * @return liste de {@link TopicDto}
+     */
+    public List<TopicDto> subscribedTopics(Set<Integer> subscribedTopicIds) {
+        List<TopicDto> subscribed = snapshot().getTopics().stream()
+                .filter(topic -> subscribedTopicIds.contains(topic.getId()))
+                .toList();
+        return topicMapper.withSubscriptions(subscribed, subscribedTopicIds);
+    }
+
+    private TopicCatalogVersion readDbVersion() {
+        return ReplicaRouting.onPrimary(topicRepository::findCatalogVersion);
+    }
+
+    /**
+     * Charge les topics ; l’empreinte est lue avant eux, de sorte qu’une modification
+     * concurrente provoque au pire un rechargement de plus.
+     */
+    private Snapshot load(TopicCatalogVersion dbVersion) {
+        long version = snapshot == null ? 1 : snapshot.getVersion() + 1;
+        List<TopicDto> topics = topicMapper.topicListToTopicDtoList(
+                ReplicaRouting.onPrimary(topicRepository::findAll), Collections.emptySet());
+        snapshot = new Snapshot(version, List.copyOf(topics), dbVersion);
+        checkedAt = System.nanoTime();
+        return snapshot;
+    }
+
+    /**
+     * Instantané immuable du catalogue.
+     *
+     * <p>
+     * Les {@link TopicDto} qu’il contient ne sont jamais exposés tels quels :
+     * chaque réponse en reçoit une copie portant l’indicateur d’abonnement.
+     * </p>
+     */
+    @Getter
+    public static final class Snapshot {
+
+        /** Version du catalogue, incrémentée à chaque rechargement. */
+        private final long version;
+        private final List<TopicDto> topics;
+        /** Empreinte de la table des topics, lue avant les topics. */
+        private final TopicCatalogVersion dbVersion;
+
+        private Snapshot(long version, List<TopicDto> topics, TopicCatalogVersion dbVersion) {
+            this.version = version;
+            this.topics = topics;
+            this.dbVersion = dbVersion;
+        }
+    }
+}
@@ -1,18 +1,20 @@
 package com.openclassrooms.mddapi.service;
 
 import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.datasource.ReplicaRead;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
 import com.openclassrooms.mddapi.dto.TopicDto;
 import com.openclassrooms.mddapi.dto.TopicRequest;
 import com.openclassrooms.mddapi.dto.TopicsResponse;
-import com.openclassrooms.mddapi.mapper.TopicMapper;
 import com.openclassrooms.mddapi.model.Topic;
-import com.openclassrooms.mddapi.model.User;
 import com.openclassrooms.mddapi.repository.TopicRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service métier responsable de la gestion des topics.
@@ -23,24 +25,29 @@ import java.util.List;
  *     <li>La création d’un topic</li>
  *     <li>La récupération de tous les topics pour un utilisateur donné</li>
  *     <li>La récupération d’un topic spécifique</li>
- *     <li>La récupération de plusieurs topics par ID pour un utilisateur</li>
+ *     <li>La récupération des topics abonnés d’un utilisateur</li>
  * </ul>
  * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class TopicService {
 
     private final TopicRepository topicRepository;
-    private final TopicMapper topicMapper;
-    private final UserService userService;
+    private final TopicCatalog topicCatalog;
+    private final CurrentUserService currentUserService;
+    private final SubscriptionService subscriptionService;
+    private final EntityTagService entityTagService;
 
     /**
      * Constructeur avec injection des dépendances.
      */
-    public TopicService(TopicRepository topicRepository, TopicMapper topicMapper, UserService userService) {
+    public TopicService(TopicRepository topicRepository, TopicCatalog topicCatalog, CurrentUserService currentUserService, SubscriptionService subscriptionService, EntityTagService entityTagService) {
         this.topicRepository = topicRepository;
-        this.topicMapper = topicMapper;
-        this.userService = userService;
+        this.topicCatalog = topicCatalog;
+        this.currentUserService = currentUserService;
+        this.subscriptionService = subscriptionService;
+        this.entityTagService = entityTagService;
     }
 
     /**
@@ -56,26 +63,43 @@ public class TopicService {
         topic.setCreatedAt(LocalDateTime.now());
 
         topicRepository.save(topic);
+        topicCatalog.refresh();
     }
 
     /**
      * Retourne tous les topics et indique pour l’utilisateur
      * authentifié s’il est abonné à chacun.
      *
+     * <p>
+     * Les topics proviennent du catalogue partagé ({@link TopicCatalog}) ;
+     * seuls les abonnements de l’utilisateur sont lus pour chaque requête.
+     * </p>
+     *
      * @param authentication utilisateur actuellement authentifié
      * @return {@link TopicsResponse} contenant la liste des topics
      */
+    @ReplicaRead
     public TopicsResponse getAll(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userService.getByEmail(email);
-        List<Topic> topics = topicRepository.findAll();
-        List<TopicDto> topicDtos = topicMapper.topicListToTopicDtoList(topics, user.getId());
+        AuthenticatedUser user = currentUserService.resolve(authentication);
+        Set<Integer> subscribedTopicIds = subscriptionService.getSubscribedTopicIds(user.getId());
+        List<TopicDto> topicDtos = topicCatalog.topics(subscribedTopicIds);
         TopicsResponse topicsResponse = new TopicsResponse();
         topicsResponse.setTopics(topicDtos);
 
         return topicsResponse;
     }
 
+    /**
+     * Retourne l’ETag de la liste des topics pour l’utilisateur authentifié,
+     * calculé à partir de ses abonnements et de l’empreinte du catalogue.
+     *
+     * @param authentication utilisateur actuellement authentifié
+     * @return ETag de la liste des topics
+     */
+    public String catalogTag(Authentication authentication) {
+        return entityTagService.topicsTag(currentUserService.resolve(authentication).getId());
+    }
+
     /**
      * Retourne un topic spécifique par son identifiant.
      *
@@ -89,15 +113,13 @@ public class TopicService {
     }
 
     /**
-     * Retourne une liste de TopicDto pour les topics spécifiés
-     * et indique si l’utilisateur est abonné à chacun.
+     * Retourne la liste des topics auxquels l’utilisateur est abonné.
      *
-     * @param ids liste des identifiants des topics
      * @param userId identifiant de l’utilisateur
      * @return liste de {@link TopicDto}
      */
-    public List<TopicDto> getByIdAndUserId(List<Integer> ids, Integer userId) {
-        List<Topic> topics = topicRepository.findAllById(ids);
-        return topicMapper.topicListToTopicDtoList(topics, userId);
+    public List<TopicDto> getSubscribedTopics(Integer userId) {
+        Set<Integer> subscribedTopicIds = subscriptionService.getSubscribedTopicIds(userId);
+        return topicCatalog.subscribedTopics(subscribedTopicIds);
     }
 }
@@ -3,6 +3,7 @@ package com.openclassrooms.mddapi.service;
 import com.openclassrooms.mddapi.constants.Constants;
 import com.openclassrooms.mddapi.model.User;
 import com.openclassrooms.mddapi.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -13,13 +14,19 @@ import org.springframework.web.server.ResponseStatusException;
  * <p>
  * Gère :
  * <ul>
- *     <li>La récupération des utilisateurs par email ou nom</li>
+ *     <li>La récupération des utilisateurs par identifiant, email ou nom</li>
  *     <li>La vérification de l’unicité du nom et de l’email</li>
  *     <li>La création ou mise à jour d’un utilisateur</li>
  * </ul>
  * </p>
+ *
+ * <p>
+ * Les recherches par email passent par l’identifiant naturel de {@link User} : servies
+ * par le cache de second niveau, elles n’interrogent pas la base pour un utilisateur connu.
+ * </p>
  */
 @Service
+@Timed(value = "mdd.service", histogram = true)
 public class UserService {
 
     private final UserRepository userRepository;
@@ -39,10 +46,33 @@ public class UserService {
      * @throws RuntimeException si l’utilisateur n’existe pas
      */
     public User getByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userRepository.findByNaturalEmail(email)
+                .orElseThrow(() -> new RuntimeException(Constants.USER_NOT_FOUND));
+    }
+
+    /**
+     * Récupère un utilisateur par son identifiant.
+     *
+     * @param id identifiant de l’utilisateur
+     * @return {@link User} correspondant
+     * @throws RuntimeException si l’utilisateur n’existe pas
+     */
+    public User getById(Integer id) {
+        return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException(Constants.USER_NOT_FOUND));
     }
 
+    /**
+     * Retourne une référence vers un utilisateur sans le charger,
+     * pour renseigner une clé étrangère.
+     *
+     * @param id identifiant de l’utilisateur
+     * @return référence paresseuse vers le {@link User}
+     */
+    public User getReferenceById(Integer id) {
+        return userRepository.getReferenceById(id);
+    }
+
     /**
      * Vérifie que l’email n’est pas déjà utilisé.
      *
@@ -50,7 +80,7 @@ public class UserService {
      * @throws ResponseStatusException si l’email est déjà utilisé
      */
     public void checkEmailNotUsed(String email) {
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (userRepository.findByNaturalEmail(email).isPresent()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     Constants.EMAIL + Constants.COLON_SEPARATOR + Constants.EMAIL_USED
@@ -82,6 +112,17 @@ public class UserService {
         userRepository.save(user);
     }
 
+    /**
+     * Remplace le hash du mot de passe d’un utilisateur, sauf s’il a été modifié entre-temps.
+     *
+     * @param id identifiant de l’utilisateur
+     * @param previous hash attendu en base
+     * @param password nouveau hash
+     */
+    public void replacePasswordHash(Integer id, String previous, String password) {
+        userRepository.updatePasswordIfUnchanged(id, previous, password);
+    }
+
     /**
      * Récupère un utilisateur par email ou nom.
      *
@@ -90,7 +131,8 @@ public class UserService {
      * @throws IllegalArgumentException si aucun utilisateur ne correspond
      */
     public User getByEmailOrName(String identifier) {
-        return userRepository.findByEmailOrName(identifier, identifier)
+        return userRepository.findByNaturalEmail(identifier)
+                .or(() -> userRepository.findByName(identifier))
                 .orElseThrow(() -> new IllegalArgumentException(Constants.INVALID_CREDENTIALS));
     }
 }
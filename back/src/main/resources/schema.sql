@@ -13,6 +13,7 @@ CREATE TABLE `topics` (
   `id` INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
   `title` VARCHAR(100) NOT NULL,
   `description` VARCHAR(2000) NOT NULL,
+  `subscriber_count` BIGINT NOT NULL DEFAULT 0,
   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
@@ -24,8 +25,9 @@ CREATE TABLE `posts` (
   `topic_id` INT NOT NULL,
   `title` VARCHAR(100) NOT NULL,
   `content` VARCHAR(2500) NOT NULL,
+  `comment_count` BIGINT NOT NULL DEFAULT 0,
   `created_at` TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+  `updated_at` DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
 );
 
 ALTER TABLE `posts` ADD FOREIGN KEY (`topic_id`) REFERENCES `topics` (`id`);
@@ -51,3 +53,22 @@ CREATE TABLE `subscription` (
 
 ALTER TABLE `subscription` ADD FOREIGN KEY (`user_id`) REFERENCES `users` (`id`);
 ALTER TABLE `subscription` ADD FOREIGN KEY (`topic_id`) REFERENCES `topics` (`id`);
+
+CREATE INDEX `posts_topic_created_index` ON `posts` (`topic_id`, `created_at`, `id`);
+CREATE INDEX `posts_topic_updated_index` ON `posts` (`topic_id`, `updated_at`);
+CREATE INDEX `posts_created_index` ON `posts` (`created_at`, `id`);
+-- Bases existantes : supprimer les doublons avant de créer l’index unique
+-- DELETE s1 FROM `subscription` s1 JOIN `subscription` s2
+--   ON s1.user_id = s2.user_id AND s1.topic_id = s2.topic_id AND s1.id > s2.id;
+CREATE UNIQUE INDEX `subscription_user_topic_unique` ON `subscription` (`user_id`, `topic_id`);
+CREATE INDEX `comments_post_created_index` ON `comments` (`posts_id`, `created_at`, `id`);
+
+CREATE TABLE `revoked_tokens` (
+  `id` INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
+  `jti` VARCHAR(36),
+  `user_id` INT,
+  `issued_before` TIMESTAMP NULL,
+  `expires_at` TIMESTAMP NOT NULL
+);
+
+CREATE INDEX `revoked_tokens_expires_index` ON `revoked_tokens` (`expires_at`);
@@ -0,0 +1,139 @@
+package com.openclassrooms.mddapi.datasource;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routage entre une base principale et un réplica, simulés par deux bases H2 en
+ * mémoire dont la table {@code origin} contient le nom.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration WINDOW = Duration.ofMillis(300);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        jdbcTemplate = route(primary, replica);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsOutsideReplicaScopeGoToPrimary() {
+        authenticate(1);
+        assertEquals("primary", origin());
+    }
+
+    @Test
+    void replicaScopeReadsFromReplica() {
+        authenticate(1);
+        assertEquals("replica", onReplica(this::origin));
+        assertEquals("replica", onReplica(() -> readOnly().execute(status -> origin())));
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        authenticate(1);
+        assertEquals("primary", onReplica(() -> transactionTemplate.execute(status -> origin())));
+    }
+
+    @Test
+    void primaryScopeWinsOverReplicaScope() {
+        authenticate(1);
+        assertEquals("primary", onReplica(() -> ReplicaRouting.onPrimary(this::origin)));
+    }
+
+    @Test
+    void writerReadsFromPrimaryDuringWindow() throws InterruptedException {
+        authenticate(1);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origin SET name = name"));
+        assertEquals("primary", onReplica(this::origin));
+
+        authenticate(2);
+        assertEquals("replica", onReplica(this::origin));
+
+        Thread.sleep(WINDOW.toMillis() + 100);
+        authenticate(1);
+        assertEquals("replica", onReplica(this::origin));
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimary() {
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        JdbcTemplate template = route(database("primary"), down);
+        authenticate(1);
+        assertEquals("primary", onReplica(() -> template.queryForObject("SELECT name FROM origin", String.class)));
+    }
+
+    private JdbcTemplate route(DataSource primary, DataSource replica) {
+        ReplicaConsistency consistency = new ReplicaConsistency(List.of("replica"), WINDOW, 100);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), consistency);
+        routing.afterPropertiesSet();
+        return new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS origin (name VARCHAR(16))");
+        template.update("DELETE FROM origin");
+        template.update("INSERT INTO origin (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    private <T> T onReplica(Supplier<T> read) {
+        ReplicaRouting.Scope previous = ReplicaRouting.enterReplica();
+        try {
+            return read.get();
+        } finally {
+            ReplicaRouting.restore(previous);
+        }
+    }
+
+    private void authenticate(int userId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("user" + userId + "@mdd.test")
+                .claim(Constants.USER_ID_CLAIM, userId)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,133 @@
+package com.openclassrooms.mddapi.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routage de bout en bout (contrôleurs, services JPA, cache des topics) entre une base
+ * principale et un réplica, simulés par deux bases H2 en mémoire dont le contenu diverge
+ * après la copie : le titre du post n’est renommé que sur le réplica, le désabonnement et
+ * le second topic n’atteignent que la base principale.
+ *
+ * <p>
+ * Avec l’EntityManager ouvert pour toute la requête (open-in-view), la première connexion
+ * obtenue serait conservée jusqu’à la réponse et ces lectures ne suivraient plus le routage.
+ * </p>
+ */
+@SpringBootTest(properties = {
+        "management.server.port=-1",
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.name=routing",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never",
+        "jwt.secret=routing-secret-routing-secret-routing-secret",
+        "mdd.search.index-dir=target/routing-index",
+        "mdd.datasource.replica-urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "mdd.datasource.read-your-writes-window=PT0.001S",
+        "mdd.topics.catalog-check-interval=PT0S",
+        "logging.level.org.springframework=WARN",
+        "logging.level.com.openclassrooms.mddapi=WARN"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-jpa-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void readsAndWritesFollowRoutingWithinOneRequest() throws Exception {
+        String token = register();
+        send(post("/api/topic").content("{\"title\":\"Java\",\"description\":\"JVM\"}"), token);
+        send(get("/api/topic/1/subscribe"), token);
+        send(post("/api/post").content("{\"title\":\"primary\",\"content\":\"contenu\",\"topicId\":1}"), token);
+
+        copyPrimaryToReplica();
+        JdbcTemplate replica = new JdbcTemplate(dataSource(REPLICA_URL));
+        replica.update("UPDATE posts SET title = 'replica'");
+        send(delete("/api/topic/1/subscribe"), token);
+        send(post("/api/topic").content("{\"title\":\"Kotlin\",\"description\":\"JVM\"}"), token);
+        assertEquals(1, new JdbcTemplate(dataSource(PRIMARY_URL)).queryForObject(
+                "SELECT COUNT(*) FROM topics WHERE title = 'Kotlin'", Integer.class));
+        Thread.sleep(10);
+
+        // Fil : abonnements et contenu lus sur le réplica, fil matérialisé sur la base principale
+        JsonNode feed = read(get("/api/post"), token).get("posts");
+        assertEquals(1, feed.size());
+        assertEquals("replica", feed.get(0).get("title").asText());
+
+        // Topics : catalogue lu sur la base principale, abonnements sur le réplica
+        JsonNode topics = read(get("/api/topic"), token).get("topics");
+        assertEquals(2, topics.size());
+        assertEquals(List.of(true, false), List.of(
+                topics.get(0).get("subscription").asBoolean(), topics.get(1).get("subscription").asBoolean()));
+    }
+
+    private String register() throws Exception {
+        String name = "user" + System.nanoTime();
+        String body = "{\"name\":\"" + name + "\",\"email\":\"" + name + "@x.io\",\"password\":\"Passw0rd!\"}";
+        String response = mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+
+    private void send(MockHttpServletRequestBuilder request, String token) throws Exception {
+        mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode read(MockHttpServletRequestBuilder request, String token) throws Exception {
+        String response = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    /**
+     * Copie le schéma et les données de la base principale dans le réplica, comme
+     * une réplication à jour.
+     */
+    private static void copyPrimaryToReplica() {
+        List<String> script = new ArrayList<>(new JdbcTemplate(dataSource(PRIMARY_URL)).queryForList("SCRIPT", String.class));
+        script.removeIf(statement -> statement.startsWith("CREATE USER"));
+        JdbcTemplate replica = new JdbcTemplate(dataSource(REPLICA_URL));
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+
+    private static JdbcDataSource dataSource(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,58 @@
+package com.openclassrooms.mddapi.loadtest;
+
+import com.openclassrooms.mddapi.MddApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Démarrage de l’application pour les tests de charge : port aléatoire, base H2 en
+ * mémoire en mode MySQL (ou base désignée par {@code -Dloadtest.db.url}), journaux réduits.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    /**
+     * @param database nom de la base H2 en mémoire
+     * @param overrides propriétés propres au test, prioritaires
+     * @return contexte démarré
+     */
+    static ConfigurableApplicationContext start(String database, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", -1);
+        properties.put("spring.datasource.url", System.getProperty("loadtest.db.url",
+                "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        properties.put("spring.datasource.username", System.getProperty("loadtest.db.user", "sa"));
+        properties.put("spring.datasource.password", System.getProperty("loadtest.db.password", ""));
+        properties.put("spring.datasource.driver-class-name", System.getProperty("loadtest.db.driver", "org.h2.Driver"));
+        properties.put("spring.datasource.name", "loadtest");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("jwt.secret", "loadtest-secret-loadtest-secret-loadtest-secret");
+        properties.put("mdd.search.index-dir", "target/loadtest-index/" + database);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.springframework", "WARN");
+        properties.put("logging.level.com.openclassrooms.mddapi", "WARN");
+        properties.putAll(overrides);
+        // Passées en arguments pour primer sur application.properties
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(MddApiApplication.class).run(args);
+    }
+
+    /**
+     * @return URL de base de l’API servie par le contexte
+     */
+    static String baseUrl(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port + "/api";
+    }
+}
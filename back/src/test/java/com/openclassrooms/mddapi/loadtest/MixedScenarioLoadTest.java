@@ -0,0 +1,328 @@
+package com.openclassrooms.mddapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de charge en boucle ouverte sur un mélange de scénarios représentatif.
+ *
+ * <p>
+ * L’application est démarrée sur une base H2 en mémoire en mode MySQL (ou sur la base
+ * désignée par {@code -Dloadtest.db.url}) et alimentée via l’API. Les requêtes sont
+ * ensuite émises à débit constant ({@code loadtest.rate} requêtes par seconde pendant
+ * {@code loadtest.duration}), réparties selon {@code loadtest.mix} entre inscription,
+ * connexion, fil d’actualité, liste des topics, abonnement, création de post et de
+ * commentaire.
+ * </p>
+ *
+ * <p>
+ * La latence est mesurée depuis l’instant d’émission prévu, et non effectif : un
+ * serveur qui ralentit retarde les requêtes suivantes, et ce retard est compté.
+ * Débit, taux d’erreur et percentiles p50/p95/p99/max par endpoint sont écrits au
+ * format JSON dans {@code loadtest.report}. Le test échoue au-delà de
+ * {@code loadtest.max-error-ratio} erreurs, ou si un p99 dépasse
+ * {@code loadtest.max-p99-ms} (0 pour ne pas borner).
+ * </p>
+ *
+ * <p>
+ * Exclu du build par défaut : {@code mvn test -Ploadtest -Dtest=MixedScenarioLoadTest}.
+ * </p>
+ */
+@Tag("loadtest")
+class MixedScenarioLoadTest {
+
+    private static final String PASSWORD = "Passw0rd!";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final int rate = Integer.getInteger("loadtest.rate", 100);
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    private final int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 1000);
+    private final int userCount = Integer.getInteger("loadtest.users", 50);
+    private final int topicCount = Integer.getInteger("loadtest.topics", 10);
+    private final int postsPerTopic = Integer.getInteger("loadtest.posts-per-topic", 20);
+    private final long seed = Long.getLong("loadtest.seed", 42);
+    private final Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+            "feed:40,topics:20,comment:15,subscribe:10,post:10,login:4,register:1"));
+
+    private final List<String> emails = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final AtomicInteger registrations = new AtomicInteger();
+    private String baseUrl;
+
+    @Test
+    void mixedScenarios() throws Exception {
+        Map<String, Recorder> recorders;
+        long elapsed;
+        try (ConfigurableApplicationContext context = LoadTestApplication.start("loadtest-mixed", Map.of())) {
+            baseUrl = LoadTestApplication.baseUrl(context);
+            seed();
+            drive(warmup, new SplittableRandom(seed - 1), new LinkedHashMap<>());
+
+            recorders = new LinkedHashMap<>();
+            long start = System.nanoTime();
+            drive(duration, new SplittableRandom(seed), recorders);
+            elapsed = System.nanoTime() - start;
+        }
+
+        ObjectNode report = report(recorders, elapsed);
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+        System.out.printf("%-32s %8s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 (ms)", "p95 (ms)", "p99 (ms)", "max (ms)");
+        recorders.forEach((endpoint, recorder) -> System.out.printf("%-32s %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                endpoint, recorder.count(), recorder.errors, recorder.count() / (elapsed / 1e9),
+                recorder.percentile(50), recorder.percentile(95), recorder.percentile(99), recorder.percentile(100)));
+        System.out.println("Rapport : " + reportFile.toAbsolutePath());
+
+        long requests = recorders.values().stream().mapToLong(Recorder::count).sum();
+        long errors = recorders.values().stream().mapToLong(recorder -> recorder.errors).sum();
+        double maxErrorRatio = Double.parseDouble(System.getProperty("loadtest.max-error-ratio", "0.01"));
+        double maxP99 = Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "0"));
+        assertTrue(requests > 0, "aucune requête émise");
+        assertTrue(errors <= requests * maxErrorRatio, errors + " erreurs sur " + requests + " requêtes");
+        if (maxP99 > 0) {
+            recorders.forEach((endpoint, recorder) -> assertTrue(recorder.percentile(99) <= maxP99,
+                    endpoint + " : p99 de " + recorder.percentile(99) + " ms"));
+        }
+    }
+
+    /**
+     * Crée les utilisateurs, les topics (chacun alimenté en posts) et des abonnements.
+     */
+    private void seed() throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        for (int user = 0; user < userCount; user++) {
+            String email = "load-" + user + "@mdd.test";
+            String body = send(post("/auth/register", null, Map.of("name", "load-" + user, "email", email, "password", PASSWORD)));
+            emails.add(email);
+            tokens.add(objectMapper.readTree(body).get("token").asText());
+        }
+        for (int topic = 1; topic <= topicCount; topic++) {
+            send(post("/topic", tokens.get(0), Map.of("title", "Topic " + topic, "description", "Topic de charge " + topic)));
+            for (int i = 1; i <= postsPerTopic; i++) {
+                send(post("/post", tokens.get(random.nextInt(tokens.size())), Map.of(
+                        "title", "Post " + topic + "-" + i,
+                        "content", "Contenu du post " + i + " du topic " + topic,
+                        "topicId", topic)));
+            }
+        }
+        for (String token : tokens) {
+            for (int i = 0; i < 3; i++) {
+                send(get("/topic/" + (1 + random.nextInt(topicCount)) + "/subscribe", token));
+            }
+        }
+    }
+
+    /**
+     * Émet les requêtes à débit constant pendant {@code period}, sans attendre les
+     * réponses (au plus {@code loadtest.max-in-flight} en cours).
+     */
+    private void drive(Duration period, SplittableRandom random, Map<String, Recorder> recorders) throws InterruptedException {
+        if (period.isZero()) {
+            return;
+        }
+        long count = period.toNanos() * rate / TimeUnit.SECONDS.toNanos(1);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = scenario(pick(random, totalWeight), random);
+            Recorder recorder = recorders.computeIfAbsent(scenario.endpoint, endpoint -> new Recorder());
+            inFlight.acquire();
+            httpClient.sendAsync(scenario.request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        recorder.record(System.nanoTime() - intended, failure == null && response.statusCode() == 200);
+                        inFlight.release();
+                    });
+        }
+        // Attente des dernières réponses
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+    }
+
+    private String pick(SplittableRandom random, int totalWeight) {
+        int draw = random.nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            draw -= entry.getValue();
+            if (draw < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty scenario mix");
+    }
+
+    private Scenario scenario(String name, SplittableRandom random) {
+        int user = random.nextInt(tokens.size());
+        String token = tokens.get(user);
+        int topicId = 1 + random.nextInt(topicCount);
+        int postId = 1 + random.nextInt(topicCount * postsPerTopic);
+        try {
+            return switch (name) {
+                case "feed" -> new Scenario("GET /api/post", get("/post?size=20", token));
+                case "topics" -> new Scenario("GET /api/topic", get("/topic", token));
+                case "subscribe" -> new Scenario("GET /api/topic/{id}/subscribe", get("/topic/" + topicId + "/subscribe", token));
+                case "post" -> new Scenario("POST /api/post", post("/post", token, Map.of(
+                        "title", "Post de charge", "content", "Contenu publié pendant le test de charge", "topicId", topicId)));
+                case "comment" -> new Scenario("POST /api/comment", post("/comment", token, Map.of(
+                        "content", "Commentaire de charge", "postId", postId)));
+                case "login" -> new Scenario("POST /api/auth/login", post("/auth/login", null, Map.of(
+                        "identifier", emails.get(user), "password", PASSWORD)));
+                case "register" -> {
+                    int n = registrations.incrementAndGet();
+                    yield new Scenario("POST /api/auth/register", post("/auth/register", null, Map.of(
+                            "name", "load-new-" + n, "email", "load-new-" + n + "@mdd.test", "password", PASSWORD)));
+                }
+                default -> throw new IllegalArgumentException("Unknown scenario: " + name);
+            };
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode report(Map<String, Recorder> recorders, long elapsed) {
+        double seconds = elapsed / 1e9;
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("timestamp", Instant.now().toString());
+        report.put("targetRate", rate);
+        report.put("durationSeconds", seconds);
+        report.put("seed", seed);
+        report.set("mix", objectMapper.valueToTree(mix));
+        long requests = recorders.values().stream().mapToLong(Recorder::count).sum();
+        report.put("requests", requests);
+        report.put("errors", recorders.values().stream().mapToLong(recorder -> recorder.errors).sum());
+        report.put("throughput", requests / seconds);
+        ObjectNode endpoints = report.putObject("endpoints");
+        recorders.forEach((endpoint, recorder) -> {
+            ObjectNode node = endpoints.putObject(endpoint);
+            node.put("requests", recorder.count());
+            node.put("errors", recorder.errors);
+            node.put("throughput", recorder.count() / seconds);
+            node.put("p50Ms", recorder.percentile(50));
+            node.put("p95Ms", recorder.percentile(95));
+            node.put("p99Ms", recorder.percentile(99));
+            node.put("maxMs", recorder.percentile(100));
+        });
+        return report;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static final class Scenario {
+
+        private final String endpoint;
+        private final HttpRequest request;
+
+        private Scenario(String endpoint, HttpRequest request) {
+            this.endpoint = endpoint;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Latences (nanosecondes) et erreurs d’un endpoint, alimentées par les réponses asynchrones.
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long[] sorted;
+
+        synchronized void record(long latency, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+            sorted = null;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized double percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (sorted == null) {
+                sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+            }
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.openclassrooms.mddapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare le débit de l’API servie par des threads classiques et par des threads virtuels.
+ *
+ * <p>
+ * Pour chaque mode, l’application est démarrée sur une base H2 en mémoire (ou sur la base
+ * désignée par {@code -Dloadtest.db.url}), alimentée via l’API, puis sollicitée par
+ * {@code loadtest.concurrency} clients concurrents sur le fil d’actualité pendant
+ * {@code loadtest.duration}. Le pool Tomcat classique est volontairement borné
+ * ({@code loadtest.tomcat.threads}) pour reproduire sa saturation en production.
+ * </p>
+ *
+ * <p>
+ * Le mode virtuel nécessite Java 21, alors que le projet cible Java 17 : le profil
+ * {@code java21} exécute les tests sur la JVM désignée par {@code JAVA21_HOME} et fait
+ * échouer le test si elle ne permet pas la comparaison. Sans ce profil, le mode virtuel
+ * est ignoré sur une JVM plus ancienne.
+ * Exclu du build par défaut : {@code mvn test -Ploadtest,java21 -Dtest=ThreadModeLoadTest}.
+ * </p>
+ */
+@Tag("loadtest")
+class ThreadModeLoadTest {
+
+    private static final String PASSWORD = "Passw0rd!";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        if (Boolean.getBoolean("loadtest.require-virtual-threads")) {
+            assertTrue(Runtime.version().feature() >= 21,
+                    "threads virtuels indisponibles sur Java " + Runtime.version().feature() + " : JAVA21_HOME doit désigner un JDK 21");
+        }
+        List<Result> results = new ArrayList<>();
+        results.add(run(false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run(true));
+        } else {
+            System.out.println("Threads virtuels indisponibles sur Java " + Runtime.version().feature()
+                    + " : mode ignoré (profil java21 pour la comparaison)");
+        }
+
+        System.out.printf("%-10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 (ms)", "p95 (ms)", "p99 (ms)", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10.1f %10.1f %10.1f %10.1f %8d%n", result.mode, result.throughput(),
+                    result.percentile(50), result.percentile(95), result.percentile(99), result.errors);
+            assertTrue(result.requests > 0, "aucune requête aboutie en mode " + result.mode);
+        }
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = start(virtualThreads, mode)) {
+            String baseUrl = LoadTestApplication.baseUrl(context);
+            String token = seed(baseUrl, mode);
+            return load(mode, baseUrl, token);
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads, String mode) {
+        return LoadTestApplication.start("loadtest-" + mode, Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "server.tomcat.threads.max", Integer.getInteger("loadtest.tomcat.threads", 50)));
+    }
+
+    /**
+     * Crée un utilisateur abonné à quelques topics alimentés en posts.
+     *
+     * @return token de l’utilisateur
+     */
+    private String seed(String baseUrl, String mode) throws IOException, InterruptedException {
+        JsonNode registered = objectMapper.readTree(send(post(baseUrl + "/auth/register", null,
+                Map.of("name", "load-" + mode, "email", "load-" + mode + "@mdd.test", "password", PASSWORD))));
+        String token = registered.get("token").asText();
+
+        int topics = Integer.getInteger("loadtest.topics", 5);
+        int postsPerTopic = Integer.getInteger("loadtest.posts-per-topic", 40);
+        for (int topic = 1; topic <= topics; topic++) {
+            send(post(baseUrl + "/topic", token, Map.of("title", "Topic " + topic, "description", "Topic de charge " + topic)));
+            send(get(baseUrl + "/topic/" + topic + "/subscribe", token));
+            for (int i = 1; i <= postsPerTopic; i++) {
+                send(post(baseUrl + "/post", token, Map.of(
+                        "title", "Post " + topic + "-" + i,
+                        "content", "Contenu du post " + i + " du topic " + topic,
+                        "topicId", topic)));
+            }
+        }
+        return token;
+    }
+
+    private Result load(String mode, String baseUrl, String token) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+        HttpRequest feed = get(baseUrl + "/post?size=20", token);
+
+        // Échauffement
+        for (int i = 0; i < 200; i++) {
+            httpClient.send(feed, HttpResponse.BodyHandlers.discarding());
+        }
+
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            futures.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(feed, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - sent);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+        return new Result(mode, latencies, elapsed, errors.get());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String url, String token, Map<String, Object> body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static final class Result {
+
+        private final String mode;
+        private final long[] latencies;
+        private final long elapsed;
+        private final long requests;
+        private final long errors;
+
+        private Result(String mode, List<Long> latencies, long elapsed, long errors) {
+            this.mode = mode;
+            this.latencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.elapsed = elapsed;
+            this.requests = this.latencies.length;
+            this.errors = errors;
+        }
+
+        double throughput() {
+            return requests / (elapsed / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.openclassrooms.mddapi.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestStatisticsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestStatisticsInterceptor interceptor = new RequestStatisticsInterceptor(registry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/post");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        RequestStatistics.stop();
+    }
+
+    @Test
+    void recordsStatementsOfSynchronousRequest() {
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/post");
+        interceptor.preHandle(request, response, new Object());
+        RequestStatistics.statementExecuted();
+        RequestStatistics.statementExecuted();
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(2, registry.get("mdd.request.jdbc.statements").tag("uri", "/api/post").summary().totalAmount());
+        assertNull(RequestStatistics.stop());
+    }
+
+    @Test
+    void releasesThreadWhenRequestGoesAsync() {
+        interceptor.preHandle(request, response, new Object());
+        RequestStatistics.statementExecuted();
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        // Le thread Tomcat est rendu sans compteurs actifs
+        assertNull(RequestStatistics.stop());
+        assertNull(registry.find("mdd.request.jdbc.statements").summary());
+    }
+}
@@ -0,0 +1,66 @@
+package com.openclassrooms.mddapi.pagination;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripKeepsTimestampPrecisionAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 0, 123_456_000);
+
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(createdAt, 42).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(42, decoded.getId());
+    }
+
+    @Test
+    void roundTripWithoutSecondsOrFraction() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30);
+
+        assertEquals(createdAt, KeysetCursor.decode(new KeysetCursor(createdAt, 1).encode()).getCreatedAt());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 59, 999_999_000), Integer.MAX_VALUE).encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="));
+    }
+
+    @Test
+    void invalidCursorsAreRejected() {
+        assertInvalid("%%%");
+        assertInvalid(encode("2024-03-01T12:30"));
+        assertInvalid(encode("yesterday|1"));
+        assertInvalid(encode("2024-03-01T12:30|abc"));
+        assertInvalid("");
+    }
+
+    @Test
+    void pageSizeIsBounded() {
+        assertEquals(Constants.DEFAULT_PAGE_SIZE, KeysetCursor.pageSize(null));
+        assertEquals(Constants.DEFAULT_PAGE_SIZE, KeysetCursor.pageSize(0));
+        assertEquals(Constants.DEFAULT_PAGE_SIZE, KeysetCursor.pageSize(-5));
+        assertEquals(7, KeysetCursor.pageSize(7));
+        assertEquals(Constants.MAX_PAGE_SIZE, KeysetCursor.pageSize(Constants.MAX_PAGE_SIZE + 1));
+    }
+
+    private static void assertInvalid(String value) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(value));
+        assertEquals(Constants.INVALID_CURSOR, exception.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package com.openclassrooms.mddapi.repository;
+
+import com.openclassrooms.mddapi.dto.CommentRow;
+import com.openclassrooms.mddapi.dto.PostRow;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insertions multi-lignes sur une base H2 en mémoire, au schéma réduit aux colonnes écrites
+ * ({@code bulk-insert-schema.sql}).
+ */
+class BulkInsertRepositoryTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private BulkInsertRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulk-insert-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("bulk-insert-schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new BulkInsertRepository(jdbcTemplate, 2);
+    }
+
+    @Test
+    void lookupsIndexUsersByEmailAndTopicsByOldestTitle() {
+        assertEquals(Map.of("alice@x.io", 1, "bob@x.io", 2), repository.findUserIdsByEmail());
+        assertEquals(Map.of("Java", 1, "Kotlin", 3), repository.findTopicIdsByTitle());
+    }
+
+    @Test
+    void generatedKeysFollowInsertionOrderAcrossStatements() {
+        List<PostRow> posts = IntStream.range(0, 5)
+                .mapToObj(i -> new PostRow(1, 1, DATE.plusMinutes(i), "Post " + i, "contenu"))
+                .toList();
+
+        List<Integer> ids = repository.insertPosts(posts);
+
+        assertEquals(5, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals("Post " + i, jdbcTemplate.queryForObject("SELECT title FROM posts WHERE id = ?", String.class, ids.get(i)));
+        }
+    }
+
+    @Test
+    void commentsIncrementTheirPostCounters() {
+        List<Integer> postIds = repository.insertPosts(List.of(
+                new PostRow(1, 1, DATE, "Premier", "contenu"),
+                new PostRow(2, 3, DATE, "Second", "contenu")));
+
+        repository.insertComments(List.of(
+                new CommentRow(2, postIds.get(0), DATE, "un"),
+                new CommentRow(1, postIds.get(1), DATE, "deux"),
+                new CommentRow(2, postIds.get(0), DATE, "trois")));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments", Integer.class));
+        assertEquals(List.of(2L, 1L), jdbcTemplate.queryForList(
+                "SELECT comment_count FROM posts ORDER BY id", Long.class));
+    }
+
+    @Test
+    void postsAndCommentsAdvanceTheirTopicVersions() {
+        List<Integer> postIds = repository.insertPosts(List.of(
+                new PostRow(1, 1, DATE, "Premier", "contenu"),
+                new PostRow(1, 1, DATE, "Deuxième", "contenu"),
+                new PostRow(2, 3, DATE, "Troisième", "contenu")));
+
+        assertEquals(List.of(postIds.get(1), 0, postIds.get(2)), jdbcTemplate.queryForList(
+                "SELECT last_post_id FROM topics ORDER BY id", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM topics WHERE content_updated_at IS NULL AND id <> 2", Integer.class));
+
+        jdbcTemplate.update("UPDATE topics SET content_updated_at = NULL");
+        repository.insertComments(List.of(new CommentRow(2, postIds.get(2), DATE, "un")));
+
+        assertEquals(List.of(3), jdbcTemplate.queryForList(
+                "SELECT id FROM topics WHERE content_updated_at IS NOT NULL", Integer.class));
+    }
+}
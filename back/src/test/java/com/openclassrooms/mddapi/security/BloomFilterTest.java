@@ -0,0 +1,67 @@
+package com.openclassrooms.mddapi.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        List<String> values = uuids(INSERTIONS);
+
+        values.forEach(filter::put);
+
+        values.forEach(value -> assertTrue(filter.mightContain(value), value));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        uuids(INSERTIONS).forEach(filter::put);
+
+        long falsePositives = uuids(INSERTIONS).stream().filter(filter::mightContain).count();
+
+        assertTrue(falsePositives < INSERTIONS * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void concurrentPutsLoseNoValue() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        List<String> values = uuids(INSERTIONS);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        IntStream.range(0, threads).forEach(t -> executor.execute(() -> {
+            for (int i = t; i < values.size(); i += threads) {
+                filter.put(values.get(i));
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        values.forEach(value -> assertTrue(filter.mightContain(value), value));
+    }
+
+    private static List<String> uuids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID().toString()).toList();
+    }
+}
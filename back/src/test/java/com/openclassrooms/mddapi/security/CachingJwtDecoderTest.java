@@ -0,0 +1,129 @@
+package com.openclassrooms.mddapi.security;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.service.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private static final byte[] SECRET = "cache-secret-cache-secret-cache-secret!!".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void validTokenIsVerifiedOnce() {
+        JwtDecoder delegate = spy(signedDecoder());
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry);
+        String token = token(Instant.now().plusSeconds(3600));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertSame(first, second);
+        verify(delegate, times(1)).decode(token);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void invalidTokenIsNeverCached() {
+        JwtDecoder delegate = spy(signedDecoder());
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry);
+        String token = token(Instant.now().plusSeconds(3600));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> decoder.decode(tampered));
+        assertThrows(JwtException.class, () -> decoder.decode(tampered));
+
+        verify(delegate, times(2)).decode(tampered);
+    }
+
+    @Test
+    void tokenWithoutExpiryIsNotCached() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("token")).thenReturn(jwt(null));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void entryDoesNotOutliveToken() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("token")).thenReturn(jwt(Instant.now().minusSeconds(1)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void revocationIsCheckedInFrontOfTheCache() {
+        TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+        JwtDecoder decoder = new RevocationCheckingJwtDecoder(
+                new CachingJwtDecoder(signedDecoder(), 100, meterRegistry), tokenRevocationService);
+        String token = token(Instant.now().plusSeconds(3600));
+        decoder.decode(token);
+
+        when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+
+        BadJwtException exception = assertThrows(BadJwtException.class, () -> decoder.decode(token));
+        assertEquals(Constants.TOKEN_REVOKED, exception.getMessage());
+    }
+
+    private static JwtDecoder signedDecoder() {
+        return NimbusJwtDecoder.withSecretKey(new SecretKeySpec(SECRET, "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+    }
+
+    private static String token(Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("alice@x.io")
+                .issuedAt(Instant.now())
+                .expiresAt(expiresAt)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(SECRET))
+                .encode(JwtEncoderParameters.from(header, claims))
+                .getTokenValue();
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue("token").header("alg", "HS256").subject("alice@x.io");
+        if (expiresAt != null) {
+            builder.issuedAt(expiresAt.minusSeconds(3600)).expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+}
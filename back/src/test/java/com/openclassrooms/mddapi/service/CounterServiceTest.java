@@ -0,0 +1,152 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CounterServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final Map<Integer, Long> written = new ConcurrentHashMap<>();
+    private CounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            batch.forEach(row -> written.merge((Integer) row[2], (Long) row[0], Long::sum));
+            return new int[batch.size()];
+        });
+        counterService = new CounterService(jdbcTemplate, mock(PostRepository.class), topicRepository,
+                mock(TopicCatalog.class), transactionManager);
+    }
+
+    @Test
+    void commentsCreatedDuringFlushesAreAllWritten() throws InterruptedException {
+        int threads = 8;
+        int commentsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < commentsPerThread; i++) {
+                    counterService.onCommentCreated(i % 3);
+                }
+            });
+        }
+        executor.shutdown();
+        start.countDown();
+        Thread flusher = new Thread(() -> {
+            while (writing.get()) {
+                counterService.flush();
+            }
+        });
+        flusher.start();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        writing.set(false);
+        flusher.join();
+        counterService.flush();
+
+        assertEquals((long) threads * commentsPerThread, written.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void concurrentCommentsOnAHotPostAreNotLostAcrossFlushes() throws InterruptedException {
+        int threads = 16;
+        int commentsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < commentsPerThread; i++) {
+                    counterService.onCommentCreated(42);
+                }
+            });
+        }
+        executor.shutdown();
+        Thread flusher = new Thread(() -> {
+            while (writing.get()) {
+                counterService.flush();
+                Thread.onSpinWait();
+            }
+        });
+        flusher.start();
+        start.countDown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        writing.set(false);
+        flusher.join();
+        counterService.flush();
+
+        assertEquals(Map.of(42, (long) threads * commentsPerThread), written);
+    }
+
+    @Test
+    void failedFlushIsRolledBackAndRetriedWithoutDoubleCounting() {
+        counterService.onCommentCreated(1);
+        counterService.onCommentCreated(1);
+        counterService.onCommentCreated(2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenAnswer(invocation -> {
+                    List<Object[]> batch = invocation.getArgument(1);
+                    batch.forEach(row -> written.merge((Integer) row[2], (Long) row[0], Long::sum));
+                    return new int[batch.size()];
+                });
+
+        counterService.flush();
+        verify(transactionManager).rollback(any(TransactionStatus.class));
+        verify(transactionManager, never()).commit(any());
+
+        counterService.onCommentCreated(2);
+        counterService.flush();
+
+        verify(transactionManager, times(1)).commit(any());
+        verify(topicRepository, times(1)).touchContentOfPosts(eq(Set.of(1, 2)), any());
+        assertEquals(Map.of(1, 2L, 2, 2L), written);
+    }
+}
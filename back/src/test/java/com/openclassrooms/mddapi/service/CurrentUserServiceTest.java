@@ -0,0 +1,73 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CurrentUserServiceTest {
+
+    private final UserService userService = mock(UserService.class);
+
+    @Test
+    void profileComesFromDatabaseNotFromTokenClaims() {
+        when(userService.getById(7)).thenReturn(user("new@mdd.test", "new-name"));
+        CurrentUserService service = new CurrentUserService(userService, 100, Duration.ofMinutes(15));
+
+        AuthenticatedUser resolved = service.resolve(token("old@mdd.test", "old-name"));
+
+        assertEquals("new@mdd.test", resolved.getEmail());
+        assertEquals("new-name", resolved.getName());
+    }
+
+    @Test
+    void cachedProfileIsServedWithoutDatabaseAccess() {
+        when(userService.getById(7)).thenReturn(user("alice@mdd.test", "alice"));
+        CurrentUserService service = new CurrentUserService(userService, 100, Duration.ofMinutes(15));
+
+        service.resolve(token("alice@mdd.test", "alice"));
+        service.resolve(token("alice@mdd.test", "alice"));
+
+        verify(userService, times(1)).getById(7);
+    }
+
+    @Test
+    void olderTokenDoesNotRestoreProfileAfterExpiry() throws InterruptedException {
+        when(userService.getById(7)).thenReturn(user("new@mdd.test", "new-name"));
+        CurrentUserService service = new CurrentUserService(userService, 100, Duration.ofMillis(50));
+        service.refresh(user("new@mdd.test", "new-name"));
+
+        Thread.sleep(100);
+        AuthenticatedUser resolved = service.resolve(token("old@mdd.test", "old-name"));
+
+        assertEquals("new-name", resolved.getName());
+    }
+
+    private User user(String email, String name) {
+        User user = new User();
+        user.setId(7);
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+
+    private JwtAuthenticationToken token(String email, String name) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject(email)
+                .claim(Constants.USER_ID_CLAIM, 7)
+                .claim(Constants.NAME, name)
+                .build();
+        return new JwtAuthenticationToken(jwt);
+    }
+}
@@ -0,0 +1,104 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.TopicCatalogVersion;
+import com.openclassrooms.mddapi.dto.TopicContentVersion;
+import com.openclassrooms.mddapi.mapper.TopicMapperImpl;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntityTagServiceTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_000);
+
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(subscriptionService.getSubscribedTopicIds(7)).thenReturn(Set.of(1, 2));
+        when(topicRepository.findCatalogVersion()).thenReturn(new TopicCatalogVersion(2L, 2, UPDATED_AT, 5L));
+        when(topicRepository.findAll()).thenReturn(List.of());
+    }
+
+    @Test
+    void instancesReadingTheSameDatabaseComputeTheSameTags() {
+        when(topicRepository.findContentVersionsByIdIn(any())).thenReturn(List.of(
+                new TopicContentVersion(2, 40, UPDATED_AT), new TopicContentVersion(1, 41, UPDATED_AT)));
+
+        EntityTagService first = newInstance();
+        EntityTagService second = newInstance();
+
+        assertEquals(first.feedVersion(7).getTag(), second.feedVersion(7).getTag());
+        assertEquals(first.topicsTag(7), second.topicsTag(7));
+        assertEquals(first.profileTag(user("alice")), second.profileTag(user("alice")));
+    }
+
+    @Test
+    void feedTagChangesWithANewPost() {
+        EntityTagService service = newInstance();
+        when(topicRepository.findContentVersionsByIdIn(any()))
+                .thenReturn(List.of(new TopicContentVersion(1, 41, UPDATED_AT)))
+                .thenReturn(List.of(new TopicContentVersion(1, 42, UPDATED_AT)));
+
+        assertNotEquals(service.feedVersion(7).getTag(), service.feedVersion(7).getTag());
+    }
+
+    @Test
+    void feedTagChangesWhenTheTopicContentIsTouched() {
+        EntityTagService service = newInstance();
+        when(topicRepository.findContentVersionsByIdIn(any()))
+                .thenReturn(List.of(new TopicContentVersion(1, 41, UPDATED_AT)))
+                .thenReturn(List.of(new TopicContentVersion(1, 41, UPDATED_AT.plusNanos(1_000))));
+
+        assertNotEquals(service.feedVersion(7).getTag(), service.feedVersion(7).getTag());
+    }
+
+    @Test
+    void feedTagChangesWithSubscriptions() {
+        EntityTagService service = newInstance();
+        when(topicRepository.findContentVersionsByIdIn(any())).thenReturn(List.of());
+        String before = service.feedVersion(7).getTag();
+
+        when(subscriptionService.getSubscribedTopicIds(7)).thenReturn(Set.of(1, 2, 3));
+
+        assertNotEquals(before, service.feedVersion(7).getTag());
+    }
+
+    @Test
+    void profileTagChangesWithTheName() {
+        EntityTagService service = newInstance();
+
+        assertNotEquals(service.profileTag(user("alice")), service.profileTag(user("alicia")));
+    }
+
+    @Test
+    void topicsTagChangesWithTheCatalog() {
+        String before = newInstance().topicsTag(7);
+
+        when(topicRepository.findCatalogVersion()).thenReturn(new TopicCatalogVersion(2L, 2, UPDATED_AT, 6L));
+
+        assertNotEquals(before, newInstance().topicsTag(7));
+    }
+
+    private EntityTagService newInstance() {
+        TopicCatalog topicCatalog = new TopicCatalog(topicRepository, new TopicMapperImpl(), Duration.ofMinutes(5));
+        return new EntityTagService(topicRepository, subscriptionService, topicCatalog);
+    }
+
+    private static AuthenticatedUser user(String name) {
+        return new AuthenticatedUser(7, name + "@mdd.test", name);
+    }
+}
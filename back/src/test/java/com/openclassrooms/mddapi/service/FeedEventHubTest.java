@@ -0,0 +1,187 @@
+package com.openclassrooms.mddapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.FeedEvent;
+import com.openclassrooms.mddapi.model.User;
+import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedEventHubTest {
+
+    private static final Duration WRITE_TIMEOUT = Duration.ofMillis(200);
+
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "HS256")
+            .claim(Constants.USER_ID_CLAIM, 1)
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plus(Constants.TOKEN_VALIDITY))
+            .build();
+    private final JwtAuthenticationToken authentication = new JwtAuthenticationToken(jwt);
+    private SseEmitter emitter = new RecordingEmitter();
+    private FeedEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1);
+        when(currentUserService.resolve(authentication)).thenReturn(new AuthenticatedUser(user));
+        when(subscriptionRepository.findTopicIdsByUserId(1)).thenReturn(Set.of(1));
+        hub = new FeedEventHub(subscriptionRepository, currentUserService, tokenRevocationService,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                4, Duration.ofMinutes(1), 2, 8, WRITE_TIMEOUT, Duration.ofSeconds(30)) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void ticketOpensOneConnectionOnly() {
+        String ticket = hub.issueTicket(authentication);
+
+        hub.connect(ticket);
+
+        assertEquals(1, connections());
+        assertUnauthorized(ticket);
+        assertUnauthorized("unknown");
+        assertUnauthorized(null);
+    }
+
+    @Test
+    void ticketObtainedWithRevokedTokenIsRejected() {
+        String ticket = hub.issueTicket(authentication);
+        when(tokenRevocationService.isRevoked(jwt)).thenReturn(true);
+
+        assertUnauthorized(ticket);
+    }
+
+    @Test
+    void revokedTokenClosesItsConnections() {
+        hub.connect(hub.issueTicket(authentication));
+        when(tokenRevocationService.isRevoked(jwt)).thenReturn(true);
+
+        hub.onTokensRevoked(2);
+        assertEquals(1, connections());
+
+        hub.onTokensRevoked(1);
+        assertEquals(0, connections());
+    }
+
+    @Test
+    void eventsReachSubscribedTopicsOnly() throws InterruptedException {
+        RecordingEmitter recording = new RecordingEmitter();
+        emitter = recording;
+        hub.connect(hub.issueTicket(authentication));
+
+        hub.publish(event(2));
+        hub.publish(event(1));
+
+        // Commentaire initial puis l’événement du topic abonné
+        assertTrue(recording.sent.await(1, TimeUnit.SECONDS));
+        assertEquals(2, recording.events.size());
+    }
+
+    @Test
+    void stalledWriteIsInterruptedAndConnectionEvicted() throws InterruptedException {
+        BlockingEmitter blocking = new BlockingEmitter();
+        emitter = blocking;
+        hub.connect(hub.issueTicket(authentication));
+        assertTrue(blocking.sending.await(1, TimeUnit.SECONDS));
+
+        hub.expireStalledWrites();
+        assertEquals(1, connections());
+
+        Thread.sleep(WRITE_TIMEOUT.toMillis() * 2);
+        hub.expireStalledWrites();
+
+        assertTrue(blocking.interrupted.await(1, TimeUnit.SECONDS));
+        assertEquals(0, connections());
+        assertEquals(1, meterRegistry.get("mdd.events.evictions").counter().count());
+    }
+
+    private void assertUnauthorized(String ticket) {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> hub.connect(ticket));
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatusCode());
+    }
+
+    private double connections() {
+        return meterRegistry.get("mdd.events.connections").gauge().value();
+    }
+
+    private static FeedEvent event(Integer topicId) {
+        return new FeedEvent(Constants.POST_CREATED_EVENT, 1, null, topicId, "Post", "alice", LocalDateTime.now());
+    }
+
+    /**
+     * Émetteur qui conserve les événements envoyés.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(2);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder);
+            sent.countDown();
+        }
+    }
+
+    /**
+     * Émetteur dont l’envoi reste bloqué jusqu’à l’interruption du thread, comme
+     * l’écriture vers un client qui ne lit plus.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException(e);
+            }
+        }
+    }
+}
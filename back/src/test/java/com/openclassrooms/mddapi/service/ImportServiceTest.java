@@ -0,0 +1,130 @@
+package com.openclassrooms.mddapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.openclassrooms.mddapi.dto.ImportReport;
+import com.openclassrooms.mddapi.repository.BulkInsertRepository;
+import jakarta.validation.Validation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Imports NDJSON écrits sur une base H2 en mémoire ({@code bulk-insert-schema.sql} :
+ * alice@x.io, bob@x.io et les topics Java et Kotlin).
+ */
+class ImportServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:import-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        new ResourceDatabasePopulator(new ClassPathResource("bulk-insert-schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void commentsResolvePostsFromAnyEarlierChunk() throws IOException {
+        ImportReport report = service(new BulkInsertRepository(jdbcTemplate, 2), 3).importFile(file(
+                post("p1", "alice@x.io", "Java", "Premier"),
+                comment("p1", "bob@x.io", "même lot"),
+                "",
+                post("p2", "bob@x.io", "Kotlin", "Second"),
+                comment("p1", "alice@x.io", "lot suivant"),
+                comment("p2", "alice@x.io", "lot suivant")));
+
+        assertEquals(2, report.getPosts());
+        assertEquals(3, report.getComments());
+        assertEquals(0, report.getRejectedLines());
+        assertEquals(List.of(2L, 1L), jdbcTemplate.queryForList("SELECT comment_count FROM posts ORDER BY id", Long.class));
+    }
+
+    @Test
+    void invalidLinesAreRejectedIndividually() throws IOException {
+        ImportReport report = service(new BulkInsertRepository(jdbcTemplate, 2), 3).importFile(file(
+                post("p1", "alice@x.io", "Java", "Premier"),
+                "{pas du json",
+                post("p2", "inconnu@x.io", "Java", "Auteur inconnu"),
+                post("p3", "alice@x.io", "Scala", "Topic inconnu"),
+                post("p1", "alice@x.io", "Java", "Référence déjà importée"),
+                post("p4", "alice@x.io", "Java", ""),
+                "{\"type\":\"post\"}",
+                comment("p9", "alice@x.io", "Post inconnu"),
+                comment("p1", "bob@x.io", "Accepté")));
+
+        assertEquals(1, report.getPosts());
+        assertEquals(1, report.getComments());
+        assertEquals(7, report.getRejectedLines());
+        assertEquals(0, report.getFailedChunks());
+        assertEquals(List.of("Premier"), jdbcTemplate.queryForList("SELECT title FROM posts", String.class));
+    }
+
+    @Test
+    void failedChunkIsRolledBackWithoutStoppingImport() throws IOException {
+        BulkInsertRepository repository = spy(new BulkInsertRepository(jdbcTemplate, 2));
+        doCallRealMethod()
+                .doThrow(new DataIntegrityViolationException("commentaire refusé"))
+                .doCallRealMethod()
+                .when(repository).insertComments(any());
+
+        ImportReport report = service(repository, 2).importFile(file(
+                post("p1", "alice@x.io", "Java", "Premier"),
+                comment("p1", "bob@x.io", "Accepté"),
+                post("p2", "alice@x.io", "Java", "Annulé"),
+                comment("p1", "bob@x.io", "Refusé"),
+                post("p3", "alice@x.io", "Java", "Troisième"),
+                comment("p2", "bob@x.io", "Post annulé")));
+
+        assertEquals(2, report.getPosts());
+        assertEquals(1, report.getComments());
+        assertEquals(1, report.getFailedChunks());
+        assertEquals(3, report.getRejectedLines());
+        assertEquals(List.of("Premier", "Troisième"),
+                jdbcTemplate.queryForList("SELECT title FROM posts ORDER BY id", String.class));
+        assertEquals(List.of("Accepté"), jdbcTemplate.queryForList("SELECT content FROM comments", String.class));
+    }
+
+    private ImportService service(BulkInsertRepository repository, int chunkSize) {
+        return new ImportService(repository, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                Validation.buildDefaultValidatorFactory().getValidator(), chunkSize);
+    }
+
+    private Path file(String... lines) throws IOException {
+        return Files.write(directory.resolve("import.ndjson"), List.of(lines), StandardCharsets.UTF_8);
+    }
+
+    private static String post(String ref, String author, String topic, String title) {
+        return "{\"type\":\"post\",\"ref\":\"" + ref + "\",\"author\":\"" + author + "\",\"date\":\"2024-01-01T10:00:00\","
+                + "\"topic\":\"" + topic + "\",\"title\":\"" + title + "\",\"content\":\"contenu\"}";
+    }
+
+    private static String comment(String post, String author, String content) {
+        return "{\"type\":\"comment\",\"post\":\"" + post + "\",\"author\":\"" + author + "\","
+                + "\"date\":\"2024-01-02T10:00:00\",\"content\":\"" + content + "\"}";
+    }
+}
@@ -0,0 +1,140 @@
+package com.openclassrooms.mddapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private static final int STRENGTH = 4;
+
+    private final UserService userService = mock(UserService.class);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encodedPasswordMatchesOnlyItself() {
+        service = service(new BCryptPasswordEncoder(STRENGTH), 1, 4, Duration.ofSeconds(5));
+
+        String hash = service.encode("Passw0rd!");
+
+        assertTrue(service.matches(1, "Passw0rd!", hash));
+        assertFalse(service.matches(1, "wrong", hash));
+    }
+
+    @Test
+    void rehashIsNeededOnlyForAnotherCost() {
+        service = service(new BCryptPasswordEncoder(STRENGTH), 1, 4, Duration.ofSeconds(5));
+
+        assertFalse(service.needsRehash(new BCryptPasswordEncoder(STRENGTH).encode("x")));
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(STRENGTH + 1).encode("x")));
+        assertFalse(service.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void successfulLoginMigratesHashToConfiguredCost() {
+        service = service(new BCryptPasswordEncoder(STRENGTH), 1, 4, Duration.ofSeconds(5));
+        String legacyHash = new BCryptPasswordEncoder(STRENGTH + 1).encode("Passw0rd!");
+
+        assertTrue(service.matches(7, "Passw0rd!", legacyHash));
+
+        verify(userService, timeout(5000)).replacePasswordHash(eq(7), eq(legacyHash), startsWith("$2a$0" + STRENGTH + "$"));
+    }
+
+    @Test
+    void failedLoginDoesNotMigrateHash() {
+        service = service(new BCryptPasswordEncoder(STRENGTH), 1, 4, Duration.ofSeconds(5));
+        String legacyHash = new BCryptPasswordEncoder(STRENGTH + 1).encode("Passw0rd!");
+
+        assertFalse(service.matches(7, "wrong", legacyHash));
+
+        verify(userService, after(200).never()).replacePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void slowHashingAnswersServiceUnavailable() {
+        CountDownLatch release = new CountDownLatch(1);
+        service = service(blockingEncoder(new CountDownLatch(1), release), 1, 4, Duration.ofMillis(100));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.encode("x"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        release.countDown();
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        service = service(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(10));
+        Thread running = new Thread(() -> encodeQuietly("running"));
+        Thread queued = new Thread(() -> encodeQuietly("queued"));
+        running.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queued.start();
+        while (queued.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.encode("rejected"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        release.countDown();
+        running.join();
+        queued.join();
+    }
+
+    private PasswordHashingService service(BCryptPasswordEncoder encoder, int threads, int queueCapacity, Duration timeout) {
+        return new PasswordHashingService(encoder, userService, new SimpleMeterRegistry(),
+                STRENGTH, threads, queueCapacity, timeout);
+    }
+
+    private void encodeQuietly(String password) {
+        try {
+            service.encode(password);
+        } catch (ResponseStatusException e) {
+            // Issue indifférente : seule l’occupation du pool compte
+        }
+    }
+
+    /**
+     * Encodeur dont chaque calcul attend {@code release}, comme un hachage très coûteux.
+     */
+    private static BCryptPasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        return encoder;
+    }
+}
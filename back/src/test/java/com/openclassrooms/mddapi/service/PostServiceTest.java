@@ -0,0 +1,103 @@
+package com.openclassrooms.mddapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.PostDto;
+import com.openclassrooms.mddapi.model.User;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Authentication authentication = mock(Authentication.class);
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1);
+        when(currentUserService.resolve(authentication)).thenReturn(new AuthenticatedUser(user));
+        when(subscriptionService.getSubscribedTopicIds(1)).thenReturn(Set.of(1));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void streamReadsOnePageAndItsCommentsPerTransaction() throws IOException {
+        List<PostDto> posts = IntStream.range(0, Constants.STREAM_PAGE_SIZE + 50)
+                .mapToObj(i -> post(1000 - i))
+                .toList();
+        List<PostDto> firstPage = posts.subList(0, Constants.STREAM_PAGE_SIZE);
+        PostDto last = firstPage.get(firstPage.size() - 1);
+        when(postRepository.findFeedDtoPage(anyCollection(), any())).thenReturn(firstPage);
+        when(postRepository.findFeedDtoPageAfter(anyCollection(), eq(last.getCreatedAt()), eq(last.getId()), any()))
+                .thenReturn(posts.subList(Constants.STREAM_PAGE_SIZE, posts.size()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service(4).streamAll(authentication, output);
+
+        assertEquals(posts.size(), objectMapper().readTree(output.toByteArray()).get(Constants.POSTS_FIELD).size());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(commentRepository, times(2)).findDtosByPostIdIn(any());
+    }
+
+    @Test
+    void concurrentStreamsAreBoundedUntilWritten() throws IOException {
+        PostService postService = service(1);
+        StreamingResponseBody first = postService.openStream(authentication);
+
+        ResponseStatusException busy = assertThrows(ResponseStatusException.class, () -> postService.openStream(authentication));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+
+        first.writeTo(new ByteArrayOutputStream());
+        postService.openStream(authentication);
+    }
+
+    private PostService service(int maxConcurrentStreams) {
+        return new PostService(mock(TopicService.class), mock(UserService.class), postRepository, commentRepository,
+                mock(TimelineService.class), subscriptionService, currentUserService, mock(CommentService.class),
+                mock(SearchService.class), mock(EntityTagService.class), objectMapper(), mock(FeedEventHub.class),
+                transactionManager, maxConcurrentStreams);
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    private static PostDto post(int id) {
+        return new PostDto(id, START, "Post " + id, "contenu", "alice", "Java", START.plusMinutes(id), 0L);
+    }
+}
@@ -0,0 +1,140 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.AuthenticatedUser;
+import com.openclassrooms.mddapi.dto.CommentSearchDocument;
+import com.openclassrooms.mddapi.dto.PostSummaryDto;
+import com.openclassrooms.mddapi.dto.SearchDocument;
+import com.openclassrooms.mddapi.dto.SearchResponse;
+import com.openclassrooms.mddapi.repository.CommentRepository;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchServiceTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final Authentication authentication = mock(Authentication.class);
+
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(currentUserService.resolve(authentication)).thenReturn(new AuthenticatedUser(7, "alice@mdd.test", "alice"));
+        when(subscriptionService.getSubscribedTopicIds(7)).thenReturn(Set.of(1));
+        when(postRepository.findSummaryDtosByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return ids.stream().map(SearchServiceTest::summary).toList();
+        });
+        when(postRepository.findSearchDocumentById(1)).thenReturn(Optional.of(post(1, "Spring Boot")));
+        when(postRepository.findSearchDocumentById(2)).thenReturn(Optional.of(post(2, "Lucene")));
+        when(commentRepository.findSearchDocumentById(10))
+                .thenReturn(Optional.of(new CommentSearchDocument(10, 1, 1, "virtual threads with spring")));
+        when(commentRepository.findSearchDocumentsAfter(anyInt(), any(Pageable.class))).thenReturn(List.of());
+        service = new SearchService(postRepository, commentRepository, currentUserService, subscriptionService, indexDir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.close();
+    }
+
+    @Test
+    void commentIsIndexedWithoutReadingTheOtherComments() {
+        service.index(1);
+        service.indexComment(10);
+
+        assertEquals(List.of(1), postIds(service.search(authentication, "threads", 0, 20)));
+        verify(commentRepository, never()).findDtosByPostIdIn(any());
+    }
+
+    @Test
+    void postMatchedByItselfAndByACommentIsReturnedOnce() {
+        service.index(1);
+        service.indexComment(10);
+
+        SearchResponse response = service.search(authentication, "spring", 0, 20);
+
+        assertEquals(List.of(1), postIds(response));
+        assertEquals(1, response.getTotalHits());
+    }
+
+    @Test
+    void pageBeyondTheResultCapIsEmpty() {
+        service.index(1);
+
+        assertEquals(List.of(), postIds(service.search(authentication, "spring", 200_000_000, 20)));
+        assertEquals(List.of(), postIds(service.search(authentication, "spring", Integer.MAX_VALUE, 50)));
+    }
+
+    @Test
+    void rebuildKeepsServingTheOldIndexAndReplaysConcurrentUpdates() throws IOException {
+        service.index(1);
+        when(postRepository.findSearchDocumentsAfter(eq(0), any(Pageable.class))).thenAnswer(invocation -> {
+            assertEquals(List.of(1), postIds(service.search(authentication, "spring", 0, 20)));
+            service.index(2);
+            return List.of(post(1, "Spring Boot"));
+        });
+
+        assertEquals(1, service.rebuild());
+
+        assertEquals(List.of(1), postIds(service.search(authentication, "spring", 0, 20)));
+        assertEquals(List.of(2), postIds(service.search(authentication, "lucene", 0, 20)));
+    }
+
+    @Test
+    void rebuiltGenerationIsReopenedAfterRestart() throws IOException {
+        when(postRepository.findSearchDocumentsAfter(eq(0), any(Pageable.class))).thenReturn(List.of(post(1, "Spring Boot")));
+        service.rebuild();
+        service.close();
+
+        service = new SearchService(postRepository, commentRepository, currentUserService, subscriptionService, indexDir);
+
+        assertEquals(List.of(1), postIds(service.search(authentication, "spring", 0, 20)));
+        try (Stream<Path> children = Files.list(indexDir)) {
+            assertEquals(Set.of("1", "CURRENT"),
+                    Set.copyOf(children.map(child -> child.getFileName().toString()).toList()));
+        }
+    }
+
+    private static SearchDocument post(Integer id, String title) {
+        return new SearchDocument(id, 1, title, "contenu du post " + id);
+    }
+
+    private static PostSummaryDto summary(Integer id) {
+        PostSummaryDto summary = new PostSummaryDto();
+        summary.setId(id);
+        return summary;
+    }
+
+    private static List<Integer> postIds(SearchResponse response) {
+        return response.getPosts().stream().map(PostSummaryDto::getId).toList();
+    }
+}
@@ -0,0 +1,238 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.FeedVersion;
+import com.openclassrooms.mddapi.dto.TimelineEntry;
+import com.openclassrooms.mddapi.model.Post;
+import com.openclassrooms.mddapi.model.Topic;
+import com.openclassrooms.mddapi.pagination.KeysetCursor;
+import com.openclassrooms.mddapi.repository.PostRepository;
+import com.openclassrooms.mddapi.repository.SubscriptionRepository;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Timelines alimentées par une base simulée en mémoire : un post est « validé » lorsqu’il
+ * y est ajouté, indépendamment de sa diffusion.
+ */
+class TimelineServiceTest {
+
+    private static final int CAPACITY = 500;
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt)
+            .thenComparing(TimelineEntry::getPostId)
+            .reversed();
+
+    private final List<TimelineEntry> committed = new ArrayList<>();
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private TimelineService timelineService;
+    private int nextId = 1;
+
+    /** Suspend la prochaine lecture des posts après la prise de son instantané. */
+    private volatile CountDownLatch snapshotTaken;
+    private volatile CountDownLatch resumeFetch;
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.findTimelineEntriesByTopicId(anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            List<TimelineEntry> snapshot = entries(Set.of(invocation.<Integer>getArgument(0)));
+            CountDownLatch taken = snapshotTaken;
+            if (taken != null) {
+                snapshotTaken = null;
+                taken.countDown();
+                resumeFetch.await(5, TimeUnit.SECONDS);
+            }
+            return snapshot;
+        });
+        when(postRepository.findTimelineEntriesByTopicIdAfter(anyInt(), any(), anyInt(), any(Pageable.class))).thenAnswer(invocation -> {
+            TimelineEntry bound = new TimelineEntry(invocation.getArgument(2), null, invocation.getArgument(1));
+            return entries(Set.of(invocation.<Integer>getArgument(0))).stream()
+                    .filter(entry -> NEWEST_FIRST.compare(entry, bound) > 0)
+                    .limit(invocation.<Pageable>getArgument(3).getPageSize())
+                    .toList();
+        });
+        when(subscriptionRepository.findUserIdsByTopicId(anyInt())).thenReturn(List.of(1, 2, 3));
+        timelineService = new TimelineService(postRepository, subscriptionRepository, mock(TopicRepository.class), CAPACITY, 100, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void postCommittedDuringBuildIsNotLost() throws Exception {
+        commit(1);
+        commit(1);
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        resumeFetch = resume;
+        snapshotTaken = taken;
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<List<Integer>> firstRead = reader.submit(() -> timelineService.readAll(feed(1, 1)));
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+        // Le post est validé et diffusé avant que la timeline construite soit enregistrée
+        Post post = commit(1);
+        timelineService.onPostCreated(post);
+        resume.countDown();
+        assertEquals(List.of(2, 1), firstRead.get(5, TimeUnit.SECONDS));
+        reader.shutdown();
+
+        assertEquals(List.of(3, 2, 1), timelineService.readAll(feed(1, 1)));
+    }
+
+    @Test
+    void postsWrittenWithoutFanOutAreCaughtUp() {
+        commit(1);
+        assertEquals(List.of(1), timelineService.readAll(feed(1, 1, 2)));
+
+        // Autre instance ou import en masse : aucune diffusion locale
+        commit(2);
+        commit(1);
+        assertEquals(List.of(3, 2, 1), timelineService.readAll(feed(1, 1, 2)));
+    }
+
+    @Test
+    void upToDateTimelineIsReadWithoutQuery() {
+        commit(1);
+        commit(2);
+        assertEquals(List.of(2, 1), timelineService.readAll(feed(1, 1, 2, 3)));
+        clearInvocations(postRepository);
+
+        assertEquals(List.of(2, 1), timelineService.readAll(feed(1, 1, 2, 3)));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void entriesOfSeveralTopicsAreMergedNewestFirst() {
+        for (int i = 0; i < 12; i++) {
+            commit(1 + i % 3 / 2);
+        }
+
+        List<TimelineEntry> firstPage = timelineService.findEntries(List.of(1, 2, 3), null, 5);
+        TimelineEntry last = firstPage.get(firstPage.size() - 1);
+        List<TimelineEntry> secondPage = timelineService.findEntries(List.of(1, 2, 3),
+                new KeysetCursor(last.getCreatedAt(), last.getPostId()), 5);
+
+        assertEquals(List.of(12, 11, 10, 9, 8), ids(firstPage));
+        assertEquals(List.of(7, 6, 5, 4, 3), ids(secondPage));
+    }
+
+    @Test
+    void topicsSubscribedOrUnsubscribedElsewhereAreAligned() {
+        commit(1);
+        commit(2);
+        assertEquals(List.of(1), timelineService.readAll(feed(1, 1)));
+
+        assertEquals(List.of(2, 1), timelineService.readAll(feed(1, 1, 2)));
+        assertEquals(List.of(2), timelineService.readAll(feed(1, 2)));
+    }
+
+    @Test
+    void concurrentBuildsAndPostsConverge() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            commit(1 + i % 3);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int writer = 0; writer < 2; writer++) {
+            int topicId = writer + 1;
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    timelineService.onPostCreated(commit(topicId));
+                }
+            }));
+        }
+        for (int reader = 0; reader < 6; reader++) {
+            int userId = 1 + reader % 3;
+            tasks.add(pool.submit(() -> {
+                while (writing.get()) {
+                    timelineService.readAll(feed(userId, 1, 2, 3));
+                }
+            }));
+        }
+        tasks.get(0).get(30, TimeUnit.SECONDS);
+        tasks.get(1).get(30, TimeUnit.SECONDS);
+        writing.set(false);
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        List<Integer> expected = entries(Set.of(1, 2, 3)).stream().map(TimelineEntry::getPostId).toList();
+        for (int userId = 1; userId <= 3; userId++) {
+            assertEquals(expected, timelineService.readAll(feed(userId, 1, 2, 3)));
+        }
+    }
+
+    /**
+     * Valide un post : identifiant attribué et ajout à la base sous un même verrou,
+     * les validations suivent donc l’ordre des identifiants.
+     */
+    private Post commit(int topicId) {
+        synchronized (committed) {
+            int id = nextId++;
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(id);
+            committed.add(new TimelineEntry(id, topicId, createdAt));
+            return Post.builder()
+                    .id(id)
+                    .topic(Topic.builder().id(topicId).title("Topic " + topicId).description("Topic").build())
+                    .createdAt(createdAt)
+                    .build();
+        }
+    }
+
+    /**
+     * Version du fil lue en base : dernier post validé de chaque topic abonné.
+     */
+    private FeedVersion feed(int userId, Integer... topicIds) {
+        synchronized (committed) {
+            Map<Integer, Integer> lastPostIds = new HashMap<>();
+            for (Integer topicId : topicIds) {
+                lastPostIds.put(topicId, 0);
+            }
+            committed.stream()
+                    .filter(entry -> lastPostIds.containsKey(entry.getTopicId()))
+                    .forEach(entry -> lastPostIds.merge(entry.getTopicId(), entry.getPostId(), Math::max));
+            return new FeedVersion(userId, Set.of(topicIds), lastPostIds, "tag");
+        }
+    }
+
+    private List<TimelineEntry> entries(Collection<Integer> topicIds) {
+        synchronized (committed) {
+            return committed.stream()
+                    .filter(entry -> topicIds.contains(entry.getTopicId()))
+                    .sorted(NEWEST_FIRST)
+                    .limit(CAPACITY)
+                    .toList();
+        }
+    }
+
+    private static List<Integer> ids(List<TimelineEntry> entries) {
+        return entries.stream().map(TimelineEntry::getPostId).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.constants.Constants;
+import com.openclassrooms.mddapi.model.RevokedToken;
+import com.openclassrooms.mddapi.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationService service = new TokenRevocationService(revokedTokenRepository, 1000);
+
+    @Test
+    void revokedJtiIsRejectedAndOthersAccepted() {
+        Jwt revoked = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+        Jwt other = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+
+        service.revoke(revoked);
+
+        assertTrue(service.isRevoked(revoked));
+        assertFalse(service.isRevoked(other));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void tokenWithoutJtiCannotBeRevokedIndividually() {
+        Jwt anonymous = jwt(null, 1, Instant.now());
+
+        service.revoke(anonymous);
+
+        assertFalse(service.isRevoked(anonymous));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void userRevocationRejectsOnlyTokensIssuedBeforeTheCutoff() {
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Jwt older = jwt(UUID.randomUUID().toString(), 1, cutoff.minusSeconds(1));
+        Jwt otherUser = jwt(UUID.randomUUID().toString(), 2, cutoff.minusSeconds(1));
+
+        service.revokeAllIssuedBefore(1);
+
+        assertTrue(service.isRevoked(older));
+        assertFalse(service.isRevoked(otherUser));
+        assertFalse(service.isRevoked(jwt(UUID.randomUUID().toString(), 1, cutoff.plusSeconds(1))));
+    }
+
+    @Test
+    void synchronizationReloadsRevocationsFromDatabase() {
+        Jwt local = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+        Jwt remote = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+        service.revoke(local);
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(RevokedToken.builder()
+                .jti(remote.getId())
+                .expiresAt(remote.getExpiresAt())
+                .build()));
+
+        service.synchronize();
+
+        // Révocation propagée par une autre instance ; la révocation locale, absente de la base, est oubliée
+        assertTrue(service.isRevoked(remote));
+        assertFalse(service.isRevoked(local));
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    void slowRevocationWriteDoesNotBlockOtherRevocations() throws Exception {
+        Jwt slow = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+        Jwt fast = jwt(UUID.randomUUID().toString(), 1, Instant.now());
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            RevokedToken revokedToken = invocation.getArgument(0);
+            if (slow.getId().equals(revokedToken.getJti())) {
+                saving.countDown();
+                resume.await(5, TimeUnit.SECONDS);
+            }
+            return revokedToken;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slowRevocation = executor.submit(() -> service.revoke(slow));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        // Le verrou n’est pas tenu pendant l’écriture en base
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            service.revoke(fast);
+            service.synchronize();
+        });
+        resume.countDown();
+        slowRevocation.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertTrue(service.isRevoked(slow));
+    }
+
+    private static Jwt jwt(String jti, Integer userId, Instant issuedAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .jti(jti)
+                .claim(Constants.USER_ID_CLAIM, userId)
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(Constants.TOKEN_VALIDITY))
+                .build();
+    }
+}
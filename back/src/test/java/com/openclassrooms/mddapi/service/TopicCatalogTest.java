@@ -0,0 +1,90 @@
+package com.openclassrooms.mddapi.service;
+
+import com.openclassrooms.mddapi.dto.TopicCatalogVersion;
+import com.openclassrooms.mddapi.mapper.TopicMapperImpl;
+import com.openclassrooms.mddapi.model.Topic;
+import com.openclassrooms.mddapi.repository.TopicRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TopicCatalogTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+
+    @Test
+    void snapshotIsServedWithoutDatabaseAccessWithinTheCheckInterval() {
+        when(topicRepository.findCatalogVersion()).thenReturn(version(1, 0));
+        when(topicRepository.findAll()).thenReturn(List.of(topic(1, "Java")));
+        TopicCatalog catalog = new TopicCatalog(topicRepository, new TopicMapperImpl(), Duration.ofMinutes(5));
+
+        TopicCatalog.Snapshot first = catalog.snapshot();
+
+        assertSame(first, catalog.snapshot());
+        verify(topicRepository, times(1)).findCatalogVersion();
+        verify(topicRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unchangedDatabaseVersionKeepsTheSnapshot() {
+        when(topicRepository.findCatalogVersion()).thenReturn(version(1, 0));
+        when(topicRepository.findAll()).thenReturn(List.of(topic(1, "Java")));
+        TopicCatalog catalog = new TopicCatalog(topicRepository, new TopicMapperImpl(), Duration.ZERO);
+
+        TopicCatalog.Snapshot first = catalog.snapshot();
+
+        assertSame(first, catalog.snapshot());
+        verify(topicRepository, times(2)).findCatalogVersion();
+        verify(topicRepository, times(1)).findAll();
+    }
+
+    @Test
+    void changeMadeByAnotherInstanceIsPickedUp() {
+        when(topicRepository.findCatalogVersion()).thenReturn(version(1, 0), version(2, 0));
+        when(topicRepository.findAll()).thenReturn(List.of(topic(1, "Java")),
+                List.of(topic(1, "Java"), topic(2, "Rust")));
+        TopicCatalog catalog = new TopicCatalog(topicRepository, new TopicMapperImpl(), Duration.ZERO);
+
+        TopicCatalog.Snapshot first = catalog.snapshot();
+        TopicCatalog.Snapshot second = catalog.snapshot();
+
+        assertEquals(1, first.getTopics().size());
+        assertEquals(2, second.getTopics().size());
+        assertEquals(first.getVersion() + 1, second.getVersion());
+    }
+
+    @Test
+    void subscriberCountChangeIsPickedUp() {
+        when(topicRepository.findCatalogVersion()).thenReturn(version(1, 0), version(1, 1));
+        when(topicRepository.findAll()).thenReturn(List.of(topic(1, "Java")));
+        TopicCatalog catalog = new TopicCatalog(topicRepository, new TopicMapperImpl(), Duration.ZERO);
+
+        catalog.snapshot();
+        catalog.snapshot();
+
+        verify(topicRepository, times(2)).findAll();
+    }
+
+    private static TopicCatalogVersion version(int topics, long subscribers) {
+        return new TopicCatalogVersion((long) topics, topics, UPDATED_AT, subscribers);
+    }
+
+    private static Topic topic(Integer id, String title) {
+        Topic topic = new Topic();
+        topic.setId(id);
+        topic.setTitle(title);
+        topic.setDescription(title);
+        return topic;
+    }
+}
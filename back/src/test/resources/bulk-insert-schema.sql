@@ -0,0 +1,50 @@
+-- Schema reduit aux colonnes ecrites par BulkInsertRepository
+CREATE TABLE users (
+  id INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
+  email VARCHAR(255) NOT NULL UNIQUE,
+  name VARCHAR(50) NOT NULL,
+  password VARCHAR(255) NOT NULL,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE topics (
+  id INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
+  title VARCHAR(100) NOT NULL,
+  description VARCHAR(2000) NOT NULL,
+  subscriber_count BIGINT NOT NULL DEFAULT 0,
+  last_post_id INT NOT NULL DEFAULT 0,
+  content_updated_at TIMESTAMP,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE subscription (
+  user_id INT NOT NULL REFERENCES users (id),
+  topic_id INT NOT NULL REFERENCES topics (id)
+);
+
+CREATE TABLE posts (
+  id INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
+  date TIMESTAMP NOT NULL,
+  author_id INT NOT NULL REFERENCES users (id),
+  topic_id INT NOT NULL REFERENCES topics (id),
+  title VARCHAR(100) NOT NULL,
+  content VARCHAR(2500) NOT NULL,
+  comment_count BIGINT NOT NULL DEFAULT 0,
+  created_at TIMESTAMP,
+  updated_at TIMESTAMP
+);
+
+CREATE TABLE comments (
+  id INT PRIMARY KEY AUTO_INCREMENT NOT NULL,
+  date TIMESTAMP NOT NULL,
+  author_id INT NOT NULL REFERENCES users (id),
+  posts_id INT NOT NULL REFERENCES posts (id),
+  content VARCHAR(1000) NOT NULL,
+  created_at TIMESTAMP,
+  updated_at TIMESTAMP
+);
+
+INSERT INTO users (email, name, password) VALUES ('alice@x.io', 'alice', 'hash'), ('bob@x.io', 'bob', 'hash');
+INSERT INTO topics (title, description) VALUES ('Java', 'JVM'), ('Java', 'Doublon'), ('Kotlin', 'JVM');
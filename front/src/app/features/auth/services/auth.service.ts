@@ -24,6 +24,6 @@ export class AuthService {
   }
 
   public logout(): Observable<string> {
-    return this.httpClient.get<string>(`${this.pathService}/logout`);
+    return this.httpClient.post(`${this.pathService}/logout`, null, { responseType: 'text' });
   }
 }
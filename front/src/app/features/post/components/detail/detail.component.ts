@@ -38,6 +38,16 @@ export class DetailComponent implements OnInit {
     this.postService.getById(this.postId).pipe(takeUntil(this.destroy$)).subscribe(post => this.post = post);
   }
 
+  loadMoreComments() {
+    if (!this.post.commentsNextCursor) {
+      return;
+    }
+    this.postService.getComments(this.postId, this.post.commentsNextCursor).pipe(takeUntil(this.destroy$)).subscribe(page => {
+      this.post.comments = this.post.comments.concat(page.comments);
+      this.post.commentsNextCursor = page.nextCursor;
+    });
+  }
+
   initForm(): void {
     this.form = this.fb.group({
       content: ['', [Validators.required]]
@@ -0,0 +1,6 @@
+import { CommentDto } from "./commentDto.interface";
+
+export interface CommentsResponse {
+	comments: CommentDto[],
+	nextCursor: string | null
+}
\ No newline at end of file
@@ -7,5 +7,7 @@ export interface PostDto {
 	content: string,
 	authorName: string,
 	topicTitle: string,
-	comments: CommentDto[]
+	comments: CommentDto[],
+	commentCount: number,
+	commentsNextCursor: string | null
 }
\ No newline at end of file
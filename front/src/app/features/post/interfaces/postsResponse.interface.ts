@@ -1,5 +1,6 @@
 import { PostDto } from "./postDto.interface";
 
 export interface PostsResponse {
-	posts: PostDto[]
+	posts: PostDto[],
+	nextCursor?: string | null
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import { Observable } from 'rxjs';
 import { PostsResponse } from '../interfaces/postsResponse.interface';
 import { PostRequest } from '../interfaces/postRequest.interface';
 import { PostDto } from '../interfaces/postDto.interface';
+import { CommentsResponse } from '../interfaces/commentsResponse.interface';
 
 @Injectable({
   providedIn: 'root'
@@ -26,4 +27,8 @@ export class PostService {
     return this.httpClient.get<PostDto>(`${this.pathService}/${postId}`);
   }
 
+  public getComments(postId: number, cursor: string): Observable<CommentsResponse> {
+    return this.httpClient.get<CommentsResponse>(`${this.pathService}/${postId}/comments`, { params: { cursor } });
+  }
+
 }
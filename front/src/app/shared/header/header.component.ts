@@ -1,6 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { Router } from '@angular/router';
 import { SessionService } from 'src/app/services/session.service';
+import { AuthService } from 'src/app/features/auth/services/auth.service';
 
 @Component({
   selector: 'app-header',
@@ -8,7 +9,7 @@ import { SessionService } from 'src/app/services/session.service';
   styleUrls: ['./header.component.scss'],
 })
 export class HeaderComponent implements OnInit {
-  constructor(private router: Router, public sessionService: SessionService) { }
+  constructor(private router: Router, public sessionService: SessionService, private authService: AuthService) { }
 
   ngOnInit(): void { }
 
@@ -21,6 +22,14 @@ export class HeaderComponent implements OnInit {
   }
 
   logout() {
+    // Révoque le token côté serveur, puis termine la session locale dans tous les cas
+    this.authService.logout().subscribe({
+      complete: () => this.endSession(),
+      error: () => this.endSession(),
+    });
+  }
+
+  private endSession() {
     this.sessionService.logOut();
     this.router.navigate(['/']);
   }